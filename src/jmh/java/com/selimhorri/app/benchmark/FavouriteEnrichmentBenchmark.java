@@ -0,0 +1,194 @@
+package com.selimhorri.app.benchmark;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.selimhorri.app.client.BulkResponse;
+import com.selimhorri.app.client.ConditionalResponse;
+import com.selimhorri.app.client.DownstreamClient;
+import com.selimhorri.app.client.impl.CachingDownstreamClient;
+import com.selimhorri.app.client.impl.ResilientDownstreamClient;
+import com.selimhorri.app.config.client.ClientProperties;
+import com.selimhorri.app.config.trending.TrendingProperties;
+import com.selimhorri.app.dto.Expansion;
+import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.service.impl.EnrichmentServiceImpl;
+import com.selimhorri.app.service.impl.FavouriteCountServiceImpl;
+import com.selimhorri.app.service.impl.FavouriteServiceImpl;
+import com.selimhorri.app.service.impl.FavouriteVersionServiceImpl;
+import com.selimhorri.app.service.impl.MembershipServiceImpl;
+import com.selimhorri.app.service.impl.TrendingServiceImpl;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * FavouriteServiceImpl.findAll with the real enrichment chain (CachingDownstreamClient over
+ * ResilientDownstreamClient, guards sized as in application.yml) against an in-process transport
+ * that answers after latencyMillis. With cache=cold every invocation starts from an empty cache,
+ * so each distinct id goes through the guard and the fan-out; with cache=warm they are all hits.
+ * The repository and entity manager are stub-only mocks, so no invocations are recorded between
+ * iterations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FavouriteEnrichmentBenchmark {
+
+    @Param({ "100", "1000" })
+    private int size;
+
+    @Param({ "0", "5" })
+    private long latencyMillis;
+
+    @Param({ "warm", "cold" })
+    private String cache;
+
+    private final ClientProperties clientProperties = new ClientProperties();
+    private FavouriteRepository favouriteRepository;
+    private ResilientDownstreamClient resilientClient;
+    private FavouriteServiceImpl favouriteService;
+
+    @Setup
+    public void setUp() {
+        this.favouriteRepository = mock(FavouriteRepository.class, withSettings().stubOnly());
+        when(this.favouriteRepository.findAllDtos()).thenReturn(FavouriteFixtures.favourites(this.size, false));
+        this.resilientClient = new ResilientDownstreamClient(
+                new StubDownstreamClient(this.latencyMillis),
+                this.clientProperties,
+                CircuitBreakerRegistry.ofDefaults(),
+                TimeLimiterRegistry.of(TimeLimiterConfig.custom()
+                        .timeoutDuration(Duration.ofSeconds(3))
+                        .build()),
+                BulkheadRegistry.of(BulkheadConfig.custom()
+                        .maxConcurrentCalls(50)
+                        .maxWaitDuration(Duration.ofMillis(50))
+                        .build()));
+        this.favouriteService = this.newFavouriteService();
+        this.favouriteService.findAll(Expansion.ALL);
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyCache() {
+        if ("cold".equals(this.cache)) {
+            this.favouriteService = this.newFavouriteService();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.resilientClient.shutdown();
+    }
+
+    @Benchmark
+    public DtoCollectionResponse<FavouriteDto> findAll() {
+        return this.favouriteService.findAll(Expansion.ALL);
+    }
+
+    @Benchmark
+    public DtoCollectionResponse<FavouriteDto> findAllWithoutExpansion() {
+        return this.favouriteService.findAll(Expansion.NONE);
+    }
+
+    private FavouriteServiceImpl newFavouriteService() {
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final EnrichmentServiceImpl enrichmentService = new EnrichmentServiceImpl(
+                new CachingDownstreamClient(this.resilientClient, this.clientProperties, meterRegistry));
+        return new FavouriteServiceImpl(
+                this.favouriteRepository,
+                enrichmentService,
+                mock(EntityManager.class, withSettings().stubOnly()),
+                new FavouriteCountServiceImpl(this.favouriteRepository),
+                new TrendingServiceImpl(this.favouriteRepository, enrichmentService, new TrendingProperties()),
+                new MembershipServiceImpl(this.favouriteRepository, false, meterRegistry),
+                new FavouriteVersionServiceImpl(this.favouriteRepository, Duration.ofSeconds(5)));
+    }
+
+    private static final class StubDownstreamClient implements DownstreamClient {
+
+        private final Executor executor;
+
+        private StubDownstreamClient(final long latencyMillis) {
+            this.executor = latencyMillis == 0
+                    ? Runnable::run
+                    : CompletableFuture.delayedExecutor(latencyMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public CompletableFuture<Optional<UserDto>> findUserById(final Integer userId) {
+            return this.respond(() -> Optional.of(FavouriteFixtures.user(userId)));
+        }
+
+        @Override
+        public CompletableFuture<Optional<ProductDto>> findProductById(final Integer productId) {
+            return this.respond(() -> Optional.of(FavouriteFixtures.product(productId)));
+        }
+
+        @Override
+        public CompletableFuture<BulkResponse<UserDto>> findUsersByIds(final Collection<Integer> userIds) {
+            return this.respond(() -> BulkResponse.of(userIds.stream()
+                    .collect(Collectors.toMap(Function.identity(), FavouriteFixtures::user)), Set.of()));
+        }
+
+        @Override
+        public CompletableFuture<BulkResponse<ProductDto>> findProductsByIds(final Collection<Integer> productIds) {
+            return this.respond(() -> BulkResponse.of(productIds.stream()
+                    .collect(Collectors.toMap(Function.identity(), FavouriteFixtures::product)), Set.of()));
+        }
+
+        @Override
+        public CompletableFuture<ConditionalResponse<UserDto>> fetchUser(final Integer userId, final String etag) {
+            return this.respond(() -> ConditionalResponse.of(FavouriteFixtures.user(userId), null));
+        }
+
+        @Override
+        public CompletableFuture<ConditionalResponse<ProductDto>> fetchProduct(final Integer productId, final String etag) {
+            return this.respond(() -> ConditionalResponse.of(FavouriteFixtures.product(productId), null));
+        }
+
+        private <T> CompletableFuture<T> respond(final Supplier<T> body) {
+            return CompletableFuture.supplyAsync(body, this.executor);
+        }
+
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.selimhorri.app.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.UserDto;
+
+final class FavouriteFixtures {
+
+    // Ten likes per user and products shared across users, as in the listing pages
+    static final int LIKES_PER_USER = 10;
+    static final int PRODUCTS = 100;
+
+    private FavouriteFixtures() {
+    }
+
+    static List<FavouriteDto> favourites(final int size, final boolean enriched) {
+        final LocalDateTime now = LocalDateTime.now();
+        return IntStream.range(0, size)
+                .mapToObj(i -> FavouriteDto.builder()
+                        .userId(userIdOf(i))
+                        .productId(productIdOf(i))
+                        .likeDate(now.minusSeconds(i))
+                        .userDto(enriched ? user(userIdOf(i)) : null)
+                        .productDto(enriched ? product(productIdOf(i)) : null)
+                        .build())
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    static UserDto user(final Integer userId) {
+        return UserDto.builder()
+                .userId(userId)
+                .firstName("User" + userId)
+                .lastName("Benchmark")
+                .email("user" + userId + "@example.com")
+                .build();
+    }
+
+    static ProductDto product(final Integer productId) {
+        return ProductDto.builder()
+                .productId(productId)
+                .productTitle("Product " + productId)
+                .priceUnit(9.99 + productId)
+                .quantity(productId % 50)
+                .build();
+    }
+
+    private static int userIdOf(final int i) {
+        return 1 + i / LIKES_PER_USER;
+    }
+
+    private static int productIdOf(final int i) {
+        return 1 + (i * 7) % PRODUCTS;
+    }
+
+}
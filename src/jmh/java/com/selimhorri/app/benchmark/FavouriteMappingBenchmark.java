@@ -0,0 +1,52 @@
+package com.selimhorri.app.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.selimhorri.app.domain.Favourite;
+import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.helper.FavouriteMappingHelper;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FavouriteMappingBenchmark {
+
+    private Favourite favourite;
+    private FavouriteDto favouriteDto;
+
+    @Setup
+    public void setUp() {
+        this.favourite = Favourite.builder()
+                .userId(1)
+                .productId(2)
+                .likeDate(LocalDateTime.now())
+                .build();
+        this.favouriteDto = FavouriteFixtures.favourites(1, true).get(0);
+    }
+
+    @Benchmark
+    public FavouriteDto mapToDto() {
+        return FavouriteMappingHelper.map(this.favourite);
+    }
+
+    @Benchmark
+    public Favourite mapToEntity() {
+        return FavouriteMappingHelper.map(this.favouriteDto);
+    }
+
+}
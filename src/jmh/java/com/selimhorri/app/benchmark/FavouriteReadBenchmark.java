@@ -0,0 +1,80 @@
+package com.selimhorri.app.benchmark;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.selimhorri.app.FavouriteServiceApplication;
+import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.helper.FavouriteMappingHelper;
+import com.selimhorri.app.repository.FavouriteRepository;
+
+/**
+ * The read behind findAll: the constructor projection against loading managed entities and
+ * mapping them, on an H2 table of size rows. Both go through the repository proxy, so each call
+ * runs in its own read-only transaction as it does in FavouriteServiceImpl. Run with -prof gc
+ * (the jmh profile does) to compare gc.alloc.rate.norm, the bytes allocated per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FavouriteReadBenchmark {
+
+    @Param({ "1000", "10000" })
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private FavouriteRepository favouriteRepository;
+
+    @Setup
+    public void setUp() {
+        this.context = SpringApplication.run(FavouriteServiceApplication.class, "--spring.profiles.active=jmh");
+        final JdbcTemplate jdbcTemplate = this.context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM favourites");
+        final List<FavouriteDto> favourites = FavouriteFixtures.favourites(this.size, false);
+        jdbcTemplate.batchUpdate("INSERT INTO favourites (user_id, product_id, like_date) VALUES (?, ?, ?)",
+                favourites.stream()
+                        .map(f -> new Object[] { f.getUserId(), f.getProductId(), Timestamp.valueOf(f.getLikeDate()) })
+                        .collect(Collectors.toUnmodifiableList()));
+        this.favouriteRepository = this.context.getBean(FavouriteRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public List<FavouriteDto> projection() {
+        return this.favouriteRepository.findAllDtos();
+    }
+
+    @Benchmark
+    public List<FavouriteDto> entities() {
+        return this.favouriteRepository.findAll()
+                .stream()
+                .map(FavouriteMappingHelper::map)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.selimhorri.app.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.selimhorri.app.config.mapper.MapperConfig;
+import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+
+/**
+ * The mappers are built by MapperConfig, so the custom LocalDateTime codecs, Blackbird and the
+ * default property filter are the ones the endpoints use.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FavouriteSerializationBenchmark {
+
+    @Param({ "json", "smile", "cbor" })
+    private String format;
+
+    @Param({ "10", "1000" })
+    private int size;
+
+    private DtoCollectionResponse<FavouriteDto> response;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        final MapperConfig mapperConfig = new MapperConfig();
+        final ObjectMapper mapper;
+        switch (this.format) {
+            case "smile":
+                mapper = mapperConfig.smileMapper();
+                break;
+            case "cbor":
+                mapper = mapperConfig.cborMapper();
+                break;
+            default:
+                mapper = mapperConfig.objectMapperBean(false);
+        }
+        this.response = new DtoCollectionResponse<>(FavouriteFixtures.favourites(this.size, true));
+        this.writer = mapper.writerFor(new TypeReference<DtoCollectionResponse<FavouriteDto>>() {});
+        this.reader = mapper.readerFor(new TypeReference<DtoCollectionResponse<FavouriteDto>>() {});
+        this.serialized = this.writer.writeValueAsBytes(this.response);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return this.writer.writeValueAsBytes(this.response);
+    }
+
+    @Benchmark
+    public DtoCollectionResponse<FavouriteDto> deserialize() throws IOException {
+        return this.reader.readValue(this.serialized);
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.selimhorri.app.loadtest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local USER-SERVICE / PRODUCT-SERVICE: answers {api}/{id} (with ETag and If-None-Match) and
+ * {api}?ids=1,2 for any id, after a log-normal delay, failing errorRate of the calls with a 503.
+ */
+final class DownstreamStandIn implements AutoCloseable {
+
+    private final String apiPath;
+    private final IntFunction<Object> dtoOf;
+    private final Duration medianLatency;
+    private final double sigma;
+    private final double errorRate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService executorService;
+    private final HttpServer server;
+
+    DownstreamStandIn(
+            final String name,
+            final String apiPath,
+            final IntFunction<Object> dtoOf,
+            final Duration medianLatency,
+            final double sigma,
+            final double errorRate) throws IOException {
+        this.apiPath = apiPath;
+        this.dtoOf = dtoOf;
+        this.medianLatency = medianLatency;
+        this.sigma = sigma;
+        this.errorRate = errorRate;
+        // Every exchange sleeps its latency on its own thread, like a slow remote service would hold a connection
+        this.executorService = Executors.newCachedThreadPool(new CustomizableThreadFactory(name + "-"));
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext(apiPath, this::handle);
+        this.server.setExecutor(this.executorService);
+        this.server.start();
+    }
+
+    String uri() {
+        return "http://localhost:" + this.server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.executorService.shutdownNow();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try {
+            this.delay();
+            if (ThreadLocalRandom.current().nextDouble() < this.errorRate) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            final String path = exchange.getRequestURI().getPath();
+            final String query = exchange.getRequestURI().getRawQuery();
+            if (path.equals(this.apiPath) && query != null && query.startsWith("ids=")) {
+                final List<Object> collection = Arrays.stream(query.substring(4).split(","))
+                        .map(id -> this.dtoOf.apply(Integer.parseInt(id)))
+                        .collect(Collectors.toUnmodifiableList());
+                this.respond(exchange, 200, Map.of("collection", collection));
+                return;
+            }
+
+            final int id = Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+            final String etag = "\"" + id + "\"";
+            exchange.getResponseHeaders().set(HttpHeaders.ETAG, etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH))) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            this.respond(exchange, 200, this.dtoOf.apply(id));
+        }
+        catch (NumberFormatException e) {
+            exchange.sendResponseHeaders(400, -1);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        finally {
+            exchange.close();
+        }
+    }
+
+    private void delay() throws InterruptedException {
+        if (this.medianLatency.isZero()) {
+            return;
+        }
+        final double factor = Math.exp(this.sigma * ThreadLocalRandom.current().nextGaussian());
+        Thread.sleep((long) (this.medianLatency.toMillis() * factor));
+    }
+
+    private void respond(final HttpExchange exchange, final int status, final Object body) throws IOException {
+        final byte[] bytes = this.objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (final OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.selimhorri.app.loadtest;
+
+import org.springframework.core.env.PropertyResolver;
+
+/**
+ * Deterministic data set: favourite i belongs to user 1 + i / likesPerUser and every user likes
+ * likesPerUser distinct products, so scenarios can pick existing (or new) pairs without a query.
+ */
+final class FavouriteSeed {
+
+    private final int favourites;
+    private final int products;
+    private final int likesPerUser;
+
+    private FavouriteSeed(final int favourites, final int products, final int likesPerUser) {
+        if (likesPerUser > products) {
+            throw new IllegalArgumentException(String.format(
+                    "loadtest.likes-per-user [%s] must not exceed loadtest.products [%s]", likesPerUser, products));
+        }
+        this.favourites = favourites;
+        this.products = products;
+        this.likesPerUser = likesPerUser;
+    }
+
+    static FavouriteSeed of(final PropertyResolver properties) {
+        return new FavouriteSeed(
+                properties.getProperty("loadtest.favourites", Integer.class, 100_000),
+                properties.getProperty("loadtest.products", Integer.class, 1_000),
+                properties.getProperty("loadtest.likes-per-user", Integer.class, 10));
+    }
+
+    int favourites() {
+        return this.favourites;
+    }
+
+    int users() {
+        return (this.favourites + this.likesPerUser - 1) / this.likesPerUser;
+    }
+
+    int userIdOf(final int favourite) {
+        return 1 + favourite / this.likesPerUser;
+    }
+
+    int productIdOf(final int favourite) {
+        return 1 + (this.userIdOf(favourite) * 31 + favourite % this.likesPerUser) % this.products;
+    }
+
+    int randomProductId(final int seed) {
+        return 1 + Math.floorMod(seed, this.products);
+    }
+
+}
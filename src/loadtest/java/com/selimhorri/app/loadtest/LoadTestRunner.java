@@ -0,0 +1,134 @@
+package com.selimhorri.app.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongFunction;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.selimhorri.app.FavouriteServiceApplication;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.UserDto;
+
+/**
+ * Boots the service on H2 with a seeded table and local USER/PRODUCT-SERVICE stand-ins reached
+ * through the simple discovery client (no Eureka, no config server), then drives FavouriteResource
+ * one scenario at a time. Every setting is a loadtest.* system property, see the loadtest profile.
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final StandardEnvironment properties = new StandardEnvironment();
+        final FavouriteSeed seed = FavouriteSeed.of(properties);
+        final Duration medianLatency = DurationStyle.detectAndParse(properties.getProperty("loadtest.downstream.median-latency", "5ms"));
+        final double sigma = properties.getProperty("loadtest.downstream.sigma", Double.class, 0.5);
+        final double errorRate = properties.getProperty("loadtest.downstream.error-rate", Double.class, 0.0);
+        final double rate = properties.getProperty("loadtest.rate", Double.class, 100.0);
+        final Duration warmup = DurationStyle.detectAndParse(properties.getProperty("loadtest.warmup", "10s"));
+        final Duration duration = DurationStyle.detectAndParse(properties.getProperty("loadtest.duration", "30s"));
+        final String[] scenarios = properties.getProperty("loadtest.scenarios", "findById,save,findAll").split(",");
+        final File resultsFile = new File(properties.getProperty("loadtest.results-file", "target/loadtest-results.json"));
+
+        try (final DownstreamStandIn users = new DownstreamStandIn("user-service", "/user-service/api/users",
+                        LoadTestRunner::user, medianLatency, sigma, errorRate);
+                final DownstreamStandIn products = new DownstreamStandIn("product-service", "/product-service/api/products",
+                        LoadTestRunner::product, medianLatency, sigma, errorRate);
+                final ConfigurableApplicationContext context = SpringApplication.run(FavouriteServiceApplication.class,
+                        "--spring.profiles.active=loadtest",
+                        "--spring.cloud.config.enabled=false",
+                        "--spring.cloud.discovery.client.simple.instances[USER-SERVICE][0].uri=" + users.uri(),
+                        "--spring.cloud.discovery.client.simple.instances[PRODUCT-SERVICE][0].uri=" + products.uri())) {
+
+            final String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + context.getEnvironment().getProperty("server.servlet.context-path") + "/api/favourites";
+            final OpenModelLoadGenerator generator = new OpenModelLoadGenerator(HttpClient.newHttpClient());
+
+            final List<OpenModelLoadGenerator.Result> results = new ArrayList<>();
+            for (final String scenario : scenarios) {
+                final OpenModelLoadGenerator.Result result = generator.run(
+                        scenario.trim(), requestsOf(scenario.trim(), baseUrl, seed), rate, warmup, duration);
+                results.add(result);
+                System.out.printf("%-10s offered %8.1f/s  throughput %8.1f/s  requests %7d  errors %6d  "
+                                + "p50 %8.2f ms  p99 %8.2f ms  p99.9 %8.2f ms  max %8.2f ms%n",
+                        result.getScenario(), result.getOfferedRate(), result.getThroughput(), result.getRequests(),
+                        result.getErrors(), result.getP50Millis(), result.getP99Millis(), result.getP999Millis(),
+                        result.getMaxMillis());
+            }
+
+            resultsFile.getAbsoluteFile().getParentFile().mkdirs();
+            new ObjectMapper()
+                    .enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(resultsFile, Map.of(
+                            "favourites", seed.favourites(),
+                            "downstreamMedianLatencyMillis", medianLatency.toMillis(),
+                            "downstreamSigma", sigma,
+                            "downstreamErrorRate", errorRate,
+                            "results", results));
+        }
+    }
+
+    private static LongFunction<HttpRequest> requestsOf(final String scenario, final String baseUrl, final FavouriteSeed seed) {
+        switch (scenario) {
+            case "findAll":
+                return i -> HttpRequest.newBuilder(URI.create(baseUrl))
+                        .timeout(Duration.ofSeconds(30))
+                        .build();
+            case "findById":
+                return i -> {
+                    final int favourite = ThreadLocalRandom.current().nextInt(seed.favourites());
+                    return HttpRequest.newBuilder(URI.create(
+                                    baseUrl + "/" + seed.userIdOf(favourite) + "/" + seed.productIdOf(favourite)))
+                            .timeout(Duration.ofSeconds(30))
+                            .build();
+                };
+            case "save":
+                // Users past the seeded ones, one per request, so every like is new
+                return i -> HttpRequest.newBuilder(URI.create(baseUrl))
+                        .timeout(Duration.ofSeconds(30))
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .POST(HttpRequest.BodyPublishers.ofString(String.format("{\"userId\":%d,\"productId\":%d}",
+                                seed.users() + 1 + i,
+                                seed.randomProductId((int) i))))
+                        .build();
+            default:
+                throw new IllegalArgumentException(String.format("Scenario: [%s] must be one of findAll, findById, save", scenario));
+        }
+    }
+
+    private static UserDto user(final int userId) {
+        return UserDto.builder()
+                .userId(userId)
+                .firstName("User" + userId)
+                .lastName("LoadTest")
+                .email("user" + userId + "@example.com")
+                .build();
+    }
+
+    private static ProductDto product(final int productId) {
+        return ProductDto.builder()
+                .productId(productId)
+                .productTitle("Product " + productId)
+                .priceUnit(9.99 + productId)
+                .quantity(productId % 50)
+                .build();
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.selimhorri.app.loadtest;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.selimhorri.app.constant.AppConstant;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Seeds right after the migrations, before counters, membership and trending load their state
+ * from the table at startup.
+ */
+@Configuration
+@Profile("loadtest")
+@Slf4j
+public class LoadTestSeedConfig {
+
+    @Bean
+    public FlywayMigrationStrategy seedingMigrationStrategy(final Environment environment) {
+        final FavouriteSeed seed = FavouriteSeed.of(environment);
+        return flyway -> {
+            flyway.migrate();
+            final long start = System.nanoTime();
+            final JdbcTemplate jdbcTemplate = new JdbcTemplate(flyway.getConfiguration().getDataSource());
+            jdbcTemplate.update("DELETE FROM favourites");
+            final LocalDateTime now = LocalDateTime.now();
+            for (int from = 0; from < seed.favourites(); from += AppConstant.JDBC_BATCH_SIZE) {
+                final int offset = from;
+                final int size = Math.min(AppConstant.JDBC_BATCH_SIZE, seed.favourites() - from);
+                jdbcTemplate.batchUpdate("INSERT INTO favourites (user_id, product_id, like_date) VALUES (?, ?, ?)",
+                        new BatchPreparedStatementSetter() {
+
+                            @Override
+                            public void setValues(final PreparedStatement ps, final int i) throws SQLException {
+                                ps.setInt(1, seed.userIdOf(offset + i));
+                                ps.setInt(2, seed.productIdOf(offset + i));
+                                ps.setTimestamp(3, Timestamp.valueOf(now.minusSeconds(offset + i)));
+                            }
+
+                            @Override
+                            public int getBatchSize() {
+                                return size;
+                            }
+
+                        });
+            }
+            log.warn("Seeded {} favourites of {} users in {} ms",
+                    seed.favourites(), seed.users(), (System.nanoTime() - start) / 1_000_000);
+        };
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.selimhorri.app.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Sends requests at a fixed arrival rate whether or not earlier ones have answered, and measures
+ * each one from the time it was scheduled to go out rather than the time it actually did. A stall
+ * in the service therefore shows up in the percentiles instead of slowing the generator down
+ * (coordinated omission).
+ */
+final class OpenModelLoadGenerator {
+
+    private final HttpClient httpClient;
+
+    OpenModelLoadGenerator(final HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    Result run(
+            final String scenario,
+            final LongFunction<HttpRequest> requests,
+            final double ratePerSecond,
+            final Duration warmup,
+            final Duration duration) {
+        final long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        final Histogram histogram = new ConcurrentHistogram(3);
+        final LongAdder errors = new LongAdder();
+        final List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+
+        final long start = System.nanoTime();
+        final long measureFrom = start + warmup.toNanos();
+        final long end = measureFrom + duration.toNanos();
+        for (long i = 0; ; i++) {
+            final long intendedStart = start + i * intervalNanos;
+            if (intendedStart >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            final boolean measured = intendedStart >= measureFrom;
+            inFlight.add(this.httpClient.sendAsync(requests.apply(i), HttpResponse.BodyHandlers.discarding())
+                    .handle((response, e) -> {
+                        if (measured) {
+                            histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart));
+                            if (e != null || response.statusCode() >= 400) {
+                                errors.increment();
+                            }
+                        }
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+        final double elapsedSeconds = (System.nanoTime() - measureFrom) / 1e9;
+
+        return new Result(scenario, ratePerSecond, histogram.getTotalCount() / elapsedSeconds, errors.sum(), histogram);
+    }
+
+    static final class Result {
+
+        private final String scenario;
+        private final double offeredRate;
+        private final double throughput;
+        private final long errors;
+        private final Histogram histogram;
+
+        private Result(
+                final String scenario,
+                final double offeredRate,
+                final double throughput,
+                final long errors,
+                final Histogram histogram) {
+            this.scenario = scenario;
+            this.offeredRate = offeredRate;
+            this.throughput = throughput;
+            this.errors = errors;
+            this.histogram = histogram;
+        }
+
+        public String getScenario() {
+            return this.scenario;
+        }
+
+        public double getOfferedRate() {
+            return this.offeredRate;
+        }
+
+        public double getThroughput() {
+            return this.throughput;
+        }
+
+        public long getRequests() {
+            return this.histogram.getTotalCount();
+        }
+
+        public long getErrors() {
+            return this.errors;
+        }
+
+        public double getP50Millis() {
+            return this.percentileMillis(50);
+        }
+
+        public double getP99Millis() {
+            return this.percentileMillis(99);
+        }
+
+        public double getP999Millis() {
+            return this.percentileMillis(99.9);
+        }
+
+        public double getMaxMillis() {
+            return this.histogram.getMaxValue() / 1000.0;
+        }
+
+        private double percentileMillis(final double percentile) {
+            return this.histogram.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+    }
+
+}
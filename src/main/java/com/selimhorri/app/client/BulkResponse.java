@@ -0,0 +1,44 @@
+package com.selimhorri.app.client;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of a bulk lookup: ids that resolved, and ids whose lookup failed. An id in neither does
+ * not exist downstream.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class BulkResponse<T> {
+
+	private final Map<Integer, T> found;
+	private final Set<Integer> failed;
+
+	public static <T> BulkResponse<T> of(final Map<Integer, T> found, final Set<Integer> failed) {
+		return new BulkResponse<>(Map.copyOf(found), Set.copyOf(failed));
+	}
+
+	public static <T> BulkResponse<T> failed(final Collection<Integer> ids) {
+		return new BulkResponse<>(Map.of(), Set.copyOf(ids));
+	}
+
+	public boolean isFailed(final Integer id) {
+		return this.failed.contains(id);
+	}
+
+	/**
+	 * This response with the failed ids replaced by what retrying them gave.
+	 */
+	public BulkResponse<T> merge(final BulkResponse<T> retried) {
+		final Map<Integer, T> merged = new HashMap<>(this.found);
+		merged.putAll(retried.found);
+		return new BulkResponse<>(Map.copyOf(merged), retried.failed);
+	}
+
+}
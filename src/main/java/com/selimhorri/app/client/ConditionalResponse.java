@@ -0,0 +1,23 @@
+package com.selimhorri.app.client;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ConditionalResponse<T> {
+	
+	private final T body;
+	private final String etag;
+	private final boolean notModified;
+	
+	public static <T> ConditionalResponse<T> of(final T body, final String etag) {
+		return new ConditionalResponse<>(body, etag, false);
+	}
+	
+	public static <T> ConditionalResponse<T> notModified(final String etag) {
+		return new ConditionalResponse<>(null, etag, true);
+	}
+	
+}
@@ -0,0 +1,104 @@
+package com.selimhorri.app.client;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Time budget of the request being served, bound to its thread by the DeadlineFilter. Enrichment
+ * waits on downstream futures no longer than what is left of it.
+ */
+public final class Deadline {
+
+	/**
+	 * Budget requested by the caller, e.g. 300ms or 300 (milliseconds).
+	 */
+	public static final String HEADER = "X-Request-Timeout";
+
+	private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+	private final long expiresAt;
+
+	private Deadline(final long expiresAt) {
+		this.expiresAt = expiresAt;
+	}
+
+	public static Deadline after(final Duration budget) {
+		return new Deadline(System.nanoTime() + budget.toNanos());
+	}
+
+	public static Deadline current() {
+		return CURRENT.get();
+	}
+
+	public static void set(final Deadline deadline) {
+		CURRENT.set(deadline);
+	}
+
+	public static void clear() {
+		CURRENT.remove();
+	}
+
+	/**
+	 * Runs the call with the deadline bound to this thread, then restores whatever was bound before.
+	 * Lets a deadline follow the work onto pool threads.
+	 */
+	public static <T> T callWithin(final Deadline deadline, final Supplier<T> call) {
+		final Deadline previous = CURRENT.get();
+		if (deadline == null) {
+			CURRENT.remove();
+		}
+		else {
+			CURRENT.set(deadline);
+		}
+		try {
+			return call.get();
+		}
+		finally {
+			if (previous == null) {
+				CURRENT.remove();
+			}
+			else {
+				CURRENT.set(previous);
+			}
+		}
+	}
+
+	/**
+	 * The timeout, or what is left of the current deadline when that is shorter (at least 1ms, a
+	 * zero timeout means none to most clients).
+	 */
+	public static Duration cap(final Duration timeout) {
+		final Deadline deadline = current();
+		if (deadline == null) {
+			return timeout;
+		}
+		final Duration remaining = Duration.ofNanos(deadline.remainingNanos());
+		return remaining.compareTo(timeout) < 0 ? Duration.ofMillis(Math.max(1, remaining.toMillis())) : timeout;
+	}
+
+	public long remainingNanos() {
+		return Math.max(0, this.expiresAt - System.nanoTime());
+	}
+
+	public boolean isExpired() {
+		return this.remainingNanos() == 0;
+	}
+
+	/**
+	 * Joins the future, waiting no longer than the current deadline when there is one.
+	 * 
+	 * @throws TimeoutException when the deadline expires first
+	 */
+	public static <T> T await(final CompletableFuture<T> future)
+			throws TimeoutException, ExecutionException, InterruptedException {
+		final Deadline deadline = current();
+		return deadline == null
+				? future.get()
+				: future.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+	}
+
+}
@@ -0,0 +1,37 @@
+package com.selimhorri.app.client;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.UserDto;
+
+public interface DownstreamClient {
+
+	/**
+	 * Qualifier of the implementation that actually talks to the downstream services.
+	 */
+	String TRANSPORT = "downstreamTransport";
+	
+	/**
+	 * Qualifier of the transport wrapped in circuit breakers, time limiters and bulkheads.
+	 */
+	String GUARDED = "downstreamGuarded";
+
+	CompletableFuture<Optional<UserDto>> findUserById(final Integer userId);
+	CompletableFuture<Optional<ProductDto>> findProductById(final Integer productId);
+
+	/**
+	 * Resolves every id at most once; ids whose lookup failed are reported as failed, never as missing.
+	 */
+	CompletableFuture<BulkResponse<UserDto>> findUsersByIds(final Collection<Integer> userIds);
+	CompletableFuture<BulkResponse<ProductDto>> findProductsByIds(final Collection<Integer> productIds);
+
+	/**
+	 * Conditional GET; a null etag makes it unconditional and a missing resource has a null body.
+	 */
+	CompletableFuture<ConditionalResponse<UserDto>> fetchUser(final Integer userId, final String etag);
+	CompletableFuture<ConditionalResponse<ProductDto>> fetchProduct(final Integer productId, final String etag);
+
+}
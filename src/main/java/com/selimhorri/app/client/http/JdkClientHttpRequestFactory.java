@@ -0,0 +1,149 @@
+package com.selimhorri.app.client.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import com.selimhorri.app.client.Deadline;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * {@link ClientHttpRequestFactory} on top of the JDK {@link HttpClient}, which multiplexes
+ * requests over HTTP/2 connections when the downstream supports it.
+ */
+@RequiredArgsConstructor
+public class JdkClientHttpRequestFactory implements ClientHttpRequestFactory {
+	
+	// Managed by the JDK client itself, setting them throws IllegalArgumentException
+	private static final Set<String> RESTRICTED_HEADERS = Set.of(
+			"connection", "content-length", "date", "expect", "from", "host", "upgrade", "via", "warning");
+	
+	private final HttpClient httpClient;
+	private final Duration readTimeout;
+	
+	@Override
+	public ClientHttpRequest createRequest(final URI uri, final HttpMethod httpMethod) {
+		return new JdkClientHttpRequest(uri, httpMethod);
+	}
+	
+	@RequiredArgsConstructor
+	private final class JdkClientHttpRequest implements ClientHttpRequest {
+		
+		private final URI uri;
+		private final HttpMethod method;
+		private final HttpHeaders headers = new HttpHeaders();
+		private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+		
+		@Override
+		public HttpMethod getMethod() {
+			return this.method;
+		}
+		
+		@Override
+		public String getMethodValue() {
+			return this.method.name();
+		}
+		
+		@Override
+		public URI getURI() {
+			return this.uri;
+		}
+		
+		@Override
+		public HttpHeaders getHeaders() {
+			return this.headers;
+		}
+		
+		@Override
+		public OutputStream getBody() {
+			return this.body;
+		}
+		
+		@Override
+		public ClientHttpResponse execute() throws IOException {
+			final var request = java.net.http.HttpRequest.newBuilder(this.uri)
+					.timeout(Deadline.cap(readTimeout))
+					.method(this.method.name(), this.body.size() == 0
+							? BodyPublishers.noBody()
+							: BodyPublishers.ofByteArray(this.body.toByteArray()));
+			this.headers.forEach((name, values) -> {
+				if (!RESTRICTED_HEADERS.contains(name.toLowerCase()))
+					values.forEach(value -> request.header(name, value));
+			});
+			try {
+				return new JdkClientHttpResponse(httpClient.send(request.build(), BodyHandlers.ofInputStream()));
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while calling " + this.uri, e);
+			}
+		}
+		
+	}
+	
+	@RequiredArgsConstructor
+	private static final class JdkClientHttpResponse implements ClientHttpResponse {
+		
+		private final HttpResponse<InputStream> response;
+		private HttpHeaders headers;
+		
+		@Override
+		public HttpStatus getStatusCode() {
+			return HttpStatus.valueOf(this.response.statusCode());
+		}
+		
+		@Override
+		public int getRawStatusCode() {
+			return this.response.statusCode();
+		}
+		
+		@Override
+		public String getStatusText() {
+			final HttpStatus status = HttpStatus.resolve(this.response.statusCode());
+			return status != null ? status.getReasonPhrase() : "";
+		}
+		
+		@Override
+		public HttpHeaders getHeaders() {
+			if (this.headers == null) {
+				final var httpHeaders = new HttpHeaders();
+				this.response.headers().map().forEach(httpHeaders::addAll);
+				this.headers = HttpHeaders.readOnlyHttpHeaders(httpHeaders);
+			}
+			return this.headers;
+		}
+		
+		@Override
+		public InputStream getBody() {
+			return this.response.body();
+		}
+		
+		@Override
+		public void close() {
+			try {
+				this.response.body().close();
+			}
+			catch (IOException e) {
+				// Nothing left to release
+			}
+		}
+		
+	}
+	
+}
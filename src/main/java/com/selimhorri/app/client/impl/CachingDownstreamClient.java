@@ -0,0 +1,150 @@
+package com.selimhorri.app.client.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.selimhorri.app.client.BulkResponse;
+import com.selimhorri.app.client.ConditionalResponse;
+import com.selimhorri.app.client.DownstreamClient;
+import com.selimhorri.app.config.client.ClientProperties;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.UserDto;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * W-TinyLFU cache in front of the guarded transport. Entries older than refresh-after are served as is
+ * while they get revalidated in the background (If-None-Match when the downstream sent an ETag);
+ * entries older than time-to-live are loaded again before answering.
+ */
+@Component
+@Primary
+public class CachingDownstreamClient implements DownstreamClient {
+
+	private final DownstreamClient delegate;
+	private final AsyncLoadingCache<Integer, ConditionalResponse<UserDto>> users;
+	private final AsyncLoadingCache<Integer, ConditionalResponse<ProductDto>> products;
+
+	public CachingDownstreamClient(
+			@Qualifier(DownstreamClient.GUARDED) final DownstreamClient delegate,
+			final ClientProperties clientProperties,
+			final MeterRegistry meterRegistry) {
+		this.delegate = delegate;
+		this.users = buildCache(clientProperties.getUser().getCache(), delegate::fetchUser);
+		this.products = buildCache(clientProperties.getProduct().getCache(), delegate::fetchProduct);
+		CaffeineCacheMetrics.monitor(meterRegistry, this.users.synchronous(), "downstream.users");
+		CaffeineCacheMetrics.monitor(meterRegistry, this.products.synchronous(), "downstream.products");
+	}
+
+	@Override
+	public CompletableFuture<Optional<UserDto>> findUserById(final Integer userId) {
+		return this.users.get(userId)
+				.thenApply(cached -> Optional.ofNullable(cached).map(ConditionalResponse::getBody));
+	}
+
+	@Override
+	public CompletableFuture<Optional<ProductDto>> findProductById(final Integer productId) {
+		return this.products.get(productId)
+				.thenApply(cached -> Optional.ofNullable(cached).map(ConditionalResponse::getBody));
+	}
+
+	@Override
+	public CompletableFuture<BulkResponse<UserDto>> findUsersByIds(final Collection<Integer> userIds) {
+		return findAll(this.users, userIds, this.delegate::findUsersByIds);
+	}
+
+	@Override
+	public CompletableFuture<BulkResponse<ProductDto>> findProductsByIds(final Collection<Integer> productIds) {
+		return findAll(this.products, productIds, this.delegate::findProductsByIds);
+	}
+
+	@Override
+	public CompletableFuture<ConditionalResponse<UserDto>> fetchUser(final Integer userId, final String etag) {
+		return this.delegate.fetchUser(userId, etag);
+	}
+
+	@Override
+	public CompletableFuture<ConditionalResponse<ProductDto>> fetchProduct(final Integer productId, final String etag) {
+		return this.delegate.fetchProduct(productId, etag);
+	}
+
+	// Only the ids this call loaded itself and the downstream did not have are reported missing; one
+	// whose load was shared with a concurrent call and left nothing behind is reported as failed
+	private static <T> CompletableFuture<BulkResponse<T>> findAll(
+			final AsyncLoadingCache<Integer, ConditionalResponse<T>> cache,
+			final Collection<Integer> ids,
+			final Function<Collection<Integer>, CompletableFuture<BulkResponse<T>>> fetchAll) {
+		final Set<Integer> missing = ConcurrentHashMap.newKeySet();
+		return cache.getAll(ids, (keys, executor) -> {
+			final List<Integer> toLoad = new ArrayList<>();
+			keys.forEach(toLoad::add);
+			return fetchAll.apply(toLoad)
+					.thenApply(response -> {
+						toLoad.stream()
+								.filter(id -> !response.getFound().containsKey(id) && !response.isFailed(id))
+								.forEach(missing::add);
+						return response.getFound().entrySet().stream()
+								.collect(Collectors.toMap(
+										Map.Entry::getKey,
+										e -> ConditionalResponse.of(e.getValue(), null)));
+					});
+		}).thenApply(cached -> BulkResponse.of(
+				cached.entrySet().stream()
+						.collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, e -> e.getValue().getBody())),
+				ids.stream()
+						.filter(id -> !cached.containsKey(id) && !missing.contains(id))
+						.collect(Collectors.toUnmodifiableSet())));
+	}
+
+	private static <T> AsyncLoadingCache<Integer, ConditionalResponse<T>> buildCache(
+			final ClientProperties.Cache cache,
+			final BiFunction<Integer, String, CompletableFuture<ConditionalResponse<T>>> fetch) {
+		return Caffeine.newBuilder()
+				.maximumSize(cache.getMaximumSize())
+				.expireAfterWrite(cache.getTimeToLive())
+				.refreshAfterWrite(cache.getRefreshAfter())
+				.recordStats()
+				.buildAsync(new AsyncCacheLoader<Integer, ConditionalResponse<T>>() {
+
+					// A missing resource completes with null, which Caffeine does not store
+					@Override
+					public CompletableFuture<ConditionalResponse<T>> asyncLoad(final Integer key, final Executor executor) {
+						return fetch.apply(key, null)
+								.thenApply(response -> response.getBody() == null ? null : response);
+					}
+
+					// A failed reload keeps serving the stale entry until it expires
+					@Override
+					public CompletableFuture<ConditionalResponse<T>> asyncReload(
+							final Integer key, final ConditionalResponse<T> oldValue, final Executor executor) {
+						return fetch.apply(key, oldValue.getEtag())
+								.thenApply(response -> {
+									if (response.isNotModified()) {
+										return oldValue;
+									}
+									return response.getBody() == null ? null : response;
+								});
+					}
+
+				});
+	}
+
+}
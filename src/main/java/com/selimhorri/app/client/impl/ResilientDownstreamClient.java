@@ -0,0 +1,360 @@
+package com.selimhorri.app.client.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.selimhorri.app.client.BulkResponse;
+import com.selimhorri.app.client.ConditionalResponse;
+import com.selimhorri.app.client.Deadline;
+import com.selimhorri.app.client.DownstreamClient;
+import com.selimhorri.app.config.client.ClientProperties;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.UserDto;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Circuit breaker, time limiter and bulkhead per downstream, configured under resilience4j.*.instances.
+ * A slow or failing service only uses up its own permits, and once its breaker opens calls fail
+ * without touching the network. Failed calls are answered with the last value each id resolved
+ * to, when there is one.
+ */
+@Component
+@Qualifier(DownstreamClient.GUARDED)
+@Slf4j
+public class ResilientDownstreamClient implements DownstreamClient {
+
+	public static final String USER_SERVICE = "userService";
+	public static final String PRODUCT_SERVICE = "productService";
+
+	private final DownstreamClient delegate;
+	private final ClientProperties clientProperties;
+	private final Guard users;
+	private final Guard products;
+	private final Cache<Integer, UserDto> lastKnownUsers;
+	private final Cache<Integer, ProductDto> lastKnownProducts;
+	private final ScheduledExecutorService scheduler;
+
+	public ResilientDownstreamClient(
+			@Qualifier(DownstreamClient.TRANSPORT) final DownstreamClient delegate,
+			final ClientProperties clientProperties,
+			final CircuitBreakerRegistry circuitBreakerRegistry,
+			final TimeLimiterRegistry timeLimiterRegistry,
+			final BulkheadRegistry bulkheadRegistry) {
+		this.delegate = delegate;
+		this.clientProperties = clientProperties;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("downstream-timeout-"));
+		this.users = new Guard(
+				circuitBreakerRegistry.circuitBreaker(USER_SERVICE),
+				timeLimiterRegistry.timeLimiter(USER_SERVICE),
+				bulkheadRegistry.bulkhead(USER_SERVICE));
+		this.products = new Guard(
+				circuitBreakerRegistry.circuitBreaker(PRODUCT_SERVICE),
+				timeLimiterRegistry.timeLimiter(PRODUCT_SERVICE),
+				bulkheadRegistry.bulkhead(PRODUCT_SERVICE));
+		this.lastKnownUsers = Caffeine.newBuilder()
+				.maximumSize(clientProperties.getUser().getCache().getMaximumSize())
+				.build();
+		this.lastKnownProducts = Caffeine.newBuilder()
+				.maximumSize(clientProperties.getProduct().getCache().getMaximumSize())
+				.build();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		this.scheduler.shutdown();
+	}
+
+	@Override
+	public CompletableFuture<Optional<UserDto>> findUserById(final Integer userId) {
+		return findOne(this.users, this.lastKnownUsers, userId, Deadline.current(), () -> this.delegate.findUserById(userId));
+	}
+
+	@Override
+	public CompletableFuture<Optional<ProductDto>> findProductById(final Integer productId) {
+		return findOne(this.products, this.lastKnownProducts, productId, Deadline.current(), () -> this.delegate.findProductById(productId));
+	}
+
+	@Override
+	public CompletableFuture<BulkResponse<UserDto>> findUsersByIds(final Collection<Integer> userIds) {
+		return this.findAll(this.users, this.lastKnownUsers, userIds, this.clientProperties.getUser(),
+				this.delegate::findUsersByIds, this.delegate::findUserById);
+	}
+
+	@Override
+	public CompletableFuture<BulkResponse<ProductDto>> findProductsByIds(final Collection<Integer> productIds) {
+		return this.findAll(this.products, this.lastKnownProducts, productIds, this.clientProperties.getProduct(),
+				this.delegate::findProductsByIds, this.delegate::findProductById);
+	}
+
+	@Override
+	public CompletableFuture<ConditionalResponse<UserDto>> fetchUser(final Integer userId, final String etag) {
+		return fetch(this.users, this.lastKnownUsers, userId, etag, Deadline.current(), () -> this.delegate.fetchUser(userId, etag));
+	}
+
+	@Override
+	public CompletableFuture<ConditionalResponse<ProductDto>> fetchProduct(final Integer productId, final String etag) {
+		return fetch(this.products, this.lastKnownProducts, productId, etag, Deadline.current(), () -> this.delegate.fetchProduct(productId, etag));
+	}
+
+	private <T> CompletableFuture<Optional<T>> findOne(
+			final Guard guard,
+			final Cache<Integer, T> lastKnown,
+			final Integer id,
+			final Deadline deadline,
+			final Supplier<CompletableFuture<Optional<T>>> call) {
+		return fallback(guard.limited(call, deadline)
+				.thenApply(found -> {
+					found.ifPresentOrElse(dto -> lastKnown.put(id, dto), () -> lastKnown.invalidate(id));
+					return found;
+				}), guard, e -> Optional.ofNullable(lastKnown.getIfPresent(id)).map(Optional::of).orElse(null));
+	}
+
+	private <T> CompletableFuture<ConditionalResponse<T>> fetch(
+			final Guard guard,
+			final Cache<Integer, T> lastKnown,
+			final Integer id,
+			final String etag,
+			final Deadline deadline,
+			final Supplier<CompletableFuture<ConditionalResponse<T>>> call) {
+		return fallback(guard.limited(call, deadline)
+				.thenApply(response -> {
+					if (!response.isNotModified()) {
+						if (response.getBody() == null) {
+							lastKnown.invalidate(id);
+						}
+						else {
+							lastKnown.put(id, response.getBody());
+						}
+					}
+					return response;
+				}), guard, e -> {
+					// A revalidation means the caller still holds the previous version
+					if (etag != null) {
+						return ConditionalResponse.<T>notModified(etag);
+					}
+					final T known = lastKnown.getIfPresent(id);
+					return known == null ? null : ConditionalResponse.of(known, null);
+				});
+	}
+
+	// Without the bulk endpoint every id is looked up on its own; with it, the ids it failed on are.
+	// Single lookups go through the guard like any other, so their failures count for the breaker and
+	// are answered with the last known value. Bulk calls are only bounded by the deadline and the
+	// transport timeouts, the time limiter is sized for one id. The deadline is taken here, on the
+	// request thread, since the lookups it bounds are started from completion callbacks.
+	private <T> CompletableFuture<BulkResponse<T>> findAll(
+			final Guard guard,
+			final Cache<Integer, T> lastKnown,
+			final Collection<Integer> ids,
+			final ClientProperties.Downstream downstream,
+			final Function<Collection<Integer>, CompletableFuture<BulkResponse<T>>> bulk,
+			final Function<Integer, CompletableFuture<Optional<T>>> one) {
+		final Deadline deadline = Deadline.current();
+		final Function<Integer, CompletableFuture<Optional<T>>> single =
+				id -> this.findOne(guard, lastKnown, id, deadline, () -> one.apply(id));
+		final List<Integer> distinctIds = ids.stream()
+				.distinct()
+				.collect(Collectors.toUnmodifiableList());
+		if (!downstream.isBulkEnabled()) {
+			return this.findEach(guard, distinctIds, single);
+		}
+		return guard.unlimited(() -> bulk.apply(distinctIds), deadline)
+				.exceptionally(e -> {
+					log.warn("Bulk lookup on {} failed for {} ids, falling back to single lookups: {}",
+							guard.name(), distinctIds.size(), e.toString());
+					return BulkResponse.failed(distinctIds);
+				})
+				.thenCompose(response -> {
+					lastKnown.putAll(response.getFound());
+					lastKnown.invalidateAll(distinctIds.stream()
+							.filter(id -> !response.getFound().containsKey(id) && !response.isFailed(id))
+							.collect(Collectors.toUnmodifiableList()));
+					return response.getFailed().isEmpty()
+							? CompletableFuture.completedFuture(response)
+							: this.findEach(guard, List.copyOf(response.getFailed()), single).thenApply(response::merge);
+				});
+	}
+
+	// At most as many lookups in flight as the bulkhead admits, so a large batch waits its turn here
+	// instead of being turned away by it
+	private <T> CompletableFuture<BulkResponse<T>> findEach(
+			final Guard guard, final List<Integer> ids, final Function<Integer, CompletableFuture<Optional<T>>> single) {
+		return new FanOut<>(ids, single)
+				.run(Math.min(this.clientProperties.getMaxInFlight(), guard.permits()))
+				.whenComplete((response, e) -> {
+					if (response != null && !response.getFailed().isEmpty()) {
+						log.warn("Lookups on {} failed for {} of {} ids", guard.name(), response.getFailed().size(), ids.size());
+					}
+				});
+	}
+
+	private static <T> CompletableFuture<T> fallback(
+			final CompletableFuture<T> future, final Guard guard, final Function<Throwable, T> lastKnown) {
+		return future.exceptionally(e -> {
+			final Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+			final T known = lastKnown.apply(cause);
+			if (known == null) {
+				throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+			}
+			log.warn("Call to {} failed ({}), serving last-known-good data", guard.name(), cause.toString());
+			return known;
+		});
+	}
+
+	private final class Guard {
+
+		private final CircuitBreaker circuitBreaker;
+		private final TimeLimiter timeLimiter;
+		private final Bulkhead bulkhead;
+
+		private Guard(final CircuitBreaker circuitBreaker, final TimeLimiter timeLimiter, final Bulkhead bulkhead) {
+			this.circuitBreaker = circuitBreaker;
+			this.timeLimiter = timeLimiter;
+			this.bulkhead = bulkhead;
+		}
+
+		private String name() {
+			return this.circuitBreaker.getName();
+		}
+
+		private int permits() {
+			return this.bulkhead.getBulkheadConfig().getMaxConcurrentCalls();
+		}
+
+		private <T> CompletableFuture<T> limited(final Supplier<CompletableFuture<T>> call, final Deadline deadline) {
+			final Supplier<CompletionStage<T>> bulkheaded = Bulkhead.decorateCompletionStage(
+					this.bulkhead, () -> this.within(call, deadline));
+			return this.guarded(() -> this.timeLimiter.executeCompletionStage(ResilientDownstreamClient.this.scheduler, bulkheaded));
+		}
+
+		private <T> CompletableFuture<T> unlimited(final Supplier<CompletableFuture<T>> call, final Deadline deadline) {
+			return this.guarded(Bulkhead.decorateCompletionStage(this.bulkhead, () -> this.within(call, deadline)));
+		}
+
+		// Nobody waits on a call past the request deadline, so it is not started once that has expired
+		// and cancelled when it does, which hands its permit back and lets the transport abort it.
+		// The transport sees the deadline too, to cap its own timeouts with.
+		private <T> CompletableFuture<T> within(final Supplier<CompletableFuture<T>> call, final Deadline deadline) {
+			if (deadline == null) {
+				return call.get();
+			}
+			if (deadline.isExpired()) {
+				return CompletableFuture.failedFuture(new CancellationException("Deadline expired before calling " + this.name()));
+			}
+			final CompletableFuture<T> future = Deadline.callWithin(deadline, call);
+			final ScheduledFuture<?> expiry = ResilientDownstreamClient.this.scheduler
+					.schedule(() -> future.cancel(true), deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+			future.whenComplete((value, e) -> expiry.cancel(false));
+			return future;
+		}
+
+		// An open breaker completes the stage with CallNotPermittedException without calling through
+		private <T> CompletableFuture<T> guarded(final Supplier<CompletionStage<T>> call) {
+			return CircuitBreaker.decorateCompletionStage(this.circuitBreaker, call)
+					.get()
+					.toCompletableFuture();
+		}
+
+	}
+
+	/**
+	 * Single lookups over a list of ids, a window of them at a time: each one that completes starts
+	 * the next.
+	 */
+	private static final class FanOut<T> {
+
+		private final Queue<Integer> pending;
+		private final Function<Integer, CompletableFuture<Optional<T>>> single;
+		private final AtomicInteger remaining;
+		private final Map<Integer, T> found = new ConcurrentHashMap<>();
+		private final Set<Integer> failed = ConcurrentHashMap.newKeySet();
+		private final CompletableFuture<BulkResponse<T>> result = new CompletableFuture<>();
+
+		private FanOut(final List<Integer> ids, final Function<Integer, CompletableFuture<Optional<T>>> single) {
+			this.pending = new ConcurrentLinkedQueue<>(ids);
+			this.single = single;
+			this.remaining = new AtomicInteger(ids.size());
+		}
+
+		private CompletableFuture<BulkResponse<T>> run(final int window) {
+			if (this.pending.isEmpty()) {
+				this.result.complete(BulkResponse.of(Map.of(), Set.of()));
+			}
+			for (int i = 0; i < window; i++) {
+				this.next();
+			}
+			return this.result;
+		}
+
+		// Lookups that finish on the spot (open breaker, expired deadline, full bulkhead) are recorded
+		// and followed by the next one in this loop; only one still in flight hands the lane over to
+		// its completion, so the stack does not grow with the number of ids
+		private void next() {
+			for (Integer id = this.pending.poll(); id != null; id = this.pending.poll()) {
+				final Integer lookedUp = id;
+				CompletableFuture<Optional<T>> lookup;
+				try {
+					lookup = this.single.apply(lookedUp);
+				}
+				catch (RuntimeException e) {
+					lookup = CompletableFuture.failedFuture(e);
+				}
+				if (!lookup.isDone()) {
+					lookup.whenComplete((value, e) -> {
+						this.record(lookedUp, value, e);
+						this.next();
+					});
+					return;
+				}
+				lookup.whenComplete((value, e) -> this.record(lookedUp, value, e));
+			}
+		}
+
+		private void record(final Integer id, final Optional<T> value, final Throwable e) {
+			if (e != null) {
+				this.failed.add(id);
+			}
+			else {
+				value.ifPresent(dto -> this.found.put(id, dto));
+			}
+			if (this.remaining.decrementAndGet() == 0) {
+				this.result.complete(BulkResponse.of(this.found, this.failed));
+			}
+		}
+
+	}
+
+}
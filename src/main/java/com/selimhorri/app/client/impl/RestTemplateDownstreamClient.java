@@ -0,0 +1,263 @@
+package com.selimhorri.app.client.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.client.BulkResponse;
+import com.selimhorri.app.client.ConditionalResponse;
+import com.selimhorri.app.client.Deadline;
+import com.selimhorri.app.client.DownstreamClient;
+import com.selimhorri.app.config.client.ClientProperties;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Blocking transport. Each downstream has its own pool, as many threads as its bulkhead has permits
+ * and a queue just as long, so a slow service cannot take the other one's threads and work beyond
+ * that is rejected instead of piling up.
+ */
+@Component
+@Qualifier(DownstreamClient.TRANSPORT)
+@ConditionalOnProperty(prefix = "app.client", name = "transport", havingValue = "rest-template", matchIfMissing = true)
+@Slf4j
+public class RestTemplateDownstreamClient implements DownstreamClient {
+
+	private final RestTemplate restTemplate;
+	private final ClientProperties clientProperties;
+	private final ExecutorService userExecutor;
+	private final ExecutorService productExecutor;
+
+	public RestTemplateDownstreamClient(
+			final RestTemplate restTemplate,
+			final ClientProperties clientProperties,
+			final BulkheadRegistry bulkheadRegistry) {
+		this.restTemplate = restTemplate;
+		this.clientProperties = clientProperties;
+		this.userExecutor = executor(
+				bulkheadRegistry.bulkhead(ResilientDownstreamClient.USER_SERVICE), "downstream-users-");
+		this.productExecutor = executor(
+				bulkheadRegistry.bulkhead(ResilientDownstreamClient.PRODUCT_SERVICE), "downstream-products-");
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		this.userExecutor.shutdown();
+		this.productExecutor.shutdown();
+	}
+
+	@Override
+	public CompletableFuture<Optional<UserDto>> findUserById(final Integer userId) {
+		return this.fetchOne(AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL, userId, UserDto.class, this.userExecutor);
+	}
+
+	@Override
+	public CompletableFuture<Optional<ProductDto>> findProductById(final Integer productId) {
+		return this.fetchOne(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL, productId, ProductDto.class, this.productExecutor);
+	}
+
+	@Override
+	public CompletableFuture<BulkResponse<UserDto>> findUsersByIds(final Collection<Integer> userIds) {
+		return this.fetchAll(
+				AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL,
+				userIds,
+				this.clientProperties.getUser(),
+				new ParameterizedTypeReference<DtoCollectionResponse<UserDto>>() {},
+				UserDto::getUserId,
+				this.userExecutor);
+	}
+
+	@Override
+	public CompletableFuture<BulkResponse<ProductDto>> findProductsByIds(final Collection<Integer> productIds) {
+		return this.fetchAll(
+				AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL,
+				productIds,
+				this.clientProperties.getProduct(),
+				new ParameterizedTypeReference<DtoCollectionResponse<ProductDto>>() {},
+				ProductDto::getProductId,
+				this.productExecutor);
+	}
+
+	@Override
+	public CompletableFuture<ConditionalResponse<UserDto>> fetchUser(final Integer userId, final String etag) {
+		return this.fetchConditional(AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL, userId, etag, UserDto.class, this.userExecutor);
+	}
+
+	@Override
+	public CompletableFuture<ConditionalResponse<ProductDto>> fetchProduct(final Integer productId, final String etag) {
+		return this.fetchConditional(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL, productId, etag, ProductDto.class, this.productExecutor);
+	}
+
+	private <T> CompletableFuture<ConditionalResponse<T>> fetchConditional(
+			final String apiUrl, final Integer id, final String etag, final Class<T> type, final ExecutorService executor) {
+		return submit(() -> {
+			final HttpHeaders headers = new HttpHeaders();
+			if (etag != null) {
+				headers.setIfNoneMatch(etag);
+			}
+			try {
+				final ResponseEntity<T> response = this.restTemplate
+						.exchange(apiUrl + "/" + id, HttpMethod.GET, new HttpEntity<>(headers), type);
+				if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+					return ConditionalResponse.<T>notModified(etag);
+				}
+				return ConditionalResponse.of(response.getBody(), response.getHeaders().getETag());
+			}
+			catch (HttpClientErrorException.NotFound e) {
+				return ConditionalResponse.<T>of(null, null);
+			}
+		}, executor);
+	}
+
+	private <T> CompletableFuture<Optional<T>> fetchOne(
+			final String apiUrl, final Integer id, final Class<T> type, final ExecutorService executor) {
+		return submit(() -> {
+			try {
+				return Optional.ofNullable(this.restTemplate.getForObject(apiUrl + "/" + id, type));
+			}
+			catch (HttpClientErrorException.NotFound e) {
+				return Optional.<T>empty();
+			}
+		}, executor);
+	}
+
+	// One request per chunk; ids of a failed chunk are reported as failed and retried one by one,
+	// through the guard, by ResilientDownstreamClient
+	private <T> CompletableFuture<BulkResponse<T>> fetchAll(
+			final String apiUrl,
+			final Collection<Integer> ids,
+			final ClientProperties.Downstream downstream,
+			final ParameterizedTypeReference<DtoCollectionResponse<T>> responseType,
+			final Function<T, Integer> idExtractor,
+			final ExecutorService executor) {
+
+		final List<Integer> distinctIds = ids.stream()
+				.distinct()
+				.collect(Collectors.toUnmodifiableList());
+
+		final List<CompletableFuture<BulkResponse<T>>> requests = new ArrayList<>();
+		final List<CompletableFuture<BulkResponse<T>>> parts = new ArrayList<>();
+		for (int i = 0; i < distinctIds.size(); i += downstream.getBulkChunkSize()) {
+			final List<Integer> chunk = distinctIds.subList(i, Math.min(i + downstream.getBulkChunkSize(), distinctIds.size()));
+			final CompletableFuture<BulkResponse<T>> request = this.fetchChunk(apiUrl, chunk, responseType, idExtractor, executor);
+			requests.add(request);
+			parts.add(request.exceptionally(e -> {
+				log.warn("Bulk lookup on {} failed for {} ids: {}", apiUrl, chunk.size(), e.getMessage());
+				return BulkResponse.failed(chunk);
+			}));
+		}
+
+		final CompletableFuture<BulkResponse<T>> result = CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new))
+				.thenApply(ignored -> {
+					final Map<Integer, T> found = new HashMap<>();
+					final Set<Integer> failed = new HashSet<>();
+					parts.forEach(part -> {
+						found.putAll(part.join().getFound());
+						failed.addAll(part.join().getFailed());
+					});
+					return BulkResponse.of(found, failed);
+				});
+		// Giving up on the whole lookup gives up on the chunks still in flight
+		result.whenComplete((response, e) -> {
+			if (e != null) {
+				requests.forEach(request -> request.cancel(true));
+			}
+		});
+		return result;
+	}
+
+	private <T> CompletableFuture<BulkResponse<T>> fetchChunk(
+			final String apiUrl,
+			final List<Integer> chunk,
+			final ParameterizedTypeReference<DtoCollectionResponse<T>> responseType,
+			final Function<T, Integer> idExtractor,
+			final ExecutorService executor) {
+		return submit(() -> {
+			final String ids = chunk.stream()
+					.map(String::valueOf)
+					.collect(Collectors.joining(","));
+			final DtoCollectionResponse<T> response = this.restTemplate
+					.exchange(apiUrl + "?ids=" + ids, HttpMethod.GET, null, responseType)
+					.getBody();
+			if (response == null || response.getCollection() == null) {
+				return BulkResponse.<T>of(Map.of(), Set.of());
+			}
+			return BulkResponse.of(response.getCollection().stream()
+					.filter(dto -> idExtractor.apply(dto) != null)
+					.collect(Collectors.toUnmodifiableMap(idExtractor, Function.identity(), (a, b) -> a)), Set.of());
+		}, executor);
+	}
+
+	// The caller's deadline follows the call onto the pool thread, where the request factory caps its
+	// timeouts with it; giving up on the future interrupts the call where the factory allows it
+	private static <T> CompletableFuture<T> submit(final Supplier<T> call, final ExecutorService executor) {
+		final Deadline deadline = Deadline.current();
+		final CompletableFuture<T> result = new CompletableFuture<>();
+		try {
+			final Future<?> task = executor.submit(() -> {
+				try {
+					result.complete(Deadline.callWithin(deadline, call));
+				}
+				catch (Throwable e) {
+					result.completeExceptionally(e);
+				}
+			});
+			result.whenComplete((value, e) -> {
+				if (e != null) {
+					task.cancel(true);
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			result.completeExceptionally(e);
+		}
+		return result;
+	}
+
+	private static ExecutorService executor(final Bulkhead bulkhead, final String threadNamePrefix) {
+		final int threads = bulkhead.getBulkheadConfig().getMaxConcurrentCalls();
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(threads),
+				new CustomizableThreadFactory(threadNamePrefix));
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+}
@@ -0,0 +1,193 @@
+package com.selimhorri.app.client.impl;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.selimhorri.app.client.BulkResponse;
+import com.selimhorri.app.client.ConditionalResponse;
+import com.selimhorri.app.client.DownstreamClient;
+import com.selimhorri.app.config.client.ClientProperties;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking transport: lookups are multiplexed on the Reactor Netty event loop instead of
+ * parking one thread per call. How many are in flight per downstream is still capped by its bulkhead,
+ * sized for this transport by app.client.permits.web-client.
+ */
+@Component
+@Qualifier(DownstreamClient.TRANSPORT)
+@ConditionalOnProperty(prefix = "app.client", name = "transport", havingValue = "web-client")
+@Slf4j
+public class WebClientDownstreamClient implements DownstreamClient {
+
+	private final WebClient webClient;
+	private final ClientProperties clientProperties;
+
+	public WebClientDownstreamClient(final WebClient.Builder webClientBuilder, final ClientProperties clientProperties) {
+		this.webClient = webClientBuilder.build();
+		this.clientProperties = clientProperties;
+	}
+
+	@Override
+	public CompletableFuture<Optional<UserDto>> findUserById(final Integer userId) {
+		return future(this.fetchOne(AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL, userId, UserDto.class));
+	}
+
+	@Override
+	public CompletableFuture<Optional<ProductDto>> findProductById(final Integer productId) {
+		return future(this.fetchOne(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL, productId, ProductDto.class));
+	}
+
+	@Override
+	public CompletableFuture<BulkResponse<UserDto>> findUsersByIds(final Collection<Integer> userIds) {
+		return future(this.fetchAll(
+				AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL,
+				userIds,
+				this.clientProperties.getUser(),
+				new ParameterizedTypeReference<DtoCollectionResponse<UserDto>>() {},
+				UserDto::getUserId));
+	}
+
+	@Override
+	public CompletableFuture<BulkResponse<ProductDto>> findProductsByIds(final Collection<Integer> productIds) {
+		return future(this.fetchAll(
+				AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL,
+				productIds,
+				this.clientProperties.getProduct(),
+				new ParameterizedTypeReference<DtoCollectionResponse<ProductDto>>() {},
+				ProductDto::getProductId));
+	}
+
+	@Override
+	public CompletableFuture<ConditionalResponse<UserDto>> fetchUser(final Integer userId, final String etag) {
+		return future(this.fetchConditional(AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL, userId, etag, UserDto.class));
+	}
+
+	@Override
+	public CompletableFuture<ConditionalResponse<ProductDto>> fetchProduct(final Integer productId, final String etag) {
+		return future(this.fetchConditional(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL, productId, etag, ProductDto.class));
+	}
+
+	private <T> Mono<Optional<T>> fetchOne(final String apiUrl, final Integer id, final Class<T> type) {
+		return this.webClient.get()
+				.uri(apiUrl + "/" + id)
+				.retrieve()
+				.bodyToMono(type)
+				.map(Optional::of)
+				.onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.just(Optional.empty()))
+				.defaultIfEmpty(Optional.empty());
+	}
+
+	private <T> Mono<ConditionalResponse<T>> fetchConditional(
+			final String apiUrl, final Integer id, final String etag, final Class<T> type) {
+		return this.webClient.get()
+				.uri(apiUrl + "/" + id)
+				.headers(headers -> {
+					if (etag != null) {
+						headers.setIfNoneMatch(etag);
+					}
+				})
+				.exchangeToMono(response -> {
+					if (response.rawStatusCode() == HttpStatus.NOT_MODIFIED.value()) {
+						return response.releaseBody().thenReturn(ConditionalResponse.<T>notModified(etag));
+					}
+					if (response.rawStatusCode() == HttpStatus.NOT_FOUND.value()) {
+						return response.releaseBody().thenReturn(ConditionalResponse.<T>of(null, null));
+					}
+					if (response.statusCode().isError()) {
+						return response.createException().flatMap(Mono::error);
+					}
+					final String responseEtag = response.headers().asHttpHeaders().getETag();
+					return response.bodyToMono(type)
+							.map(body -> ConditionalResponse.of(body, responseEtag))
+							.defaultIfEmpty(ConditionalResponse.<T>of(null, null));
+				});
+	}
+
+	// One request per chunk; ids of a failed chunk are reported as failed and retried one by one,
+	// through the guard, by ResilientDownstreamClient
+	private <T> Mono<BulkResponse<T>> fetchAll(
+			final String apiUrl,
+			final Collection<Integer> ids,
+			final ClientProperties.Downstream downstream,
+			final ParameterizedTypeReference<DtoCollectionResponse<T>> responseType,
+			final Function<T, Integer> idExtractor) {
+
+		final List<Integer> distinctIds = ids.stream()
+				.distinct()
+				.collect(Collectors.toUnmodifiableList());
+
+		return Flux.fromIterable(distinctIds)
+				.buffer(downstream.getBulkChunkSize())
+				.flatMap(chunk -> this.fetchChunk(apiUrl, chunk, responseType, idExtractor)
+						.collectMap(Map.Entry::getKey, Map.Entry::getValue)
+						.map(found -> BulkResponse.of(found, Set.<Integer>of()))
+						.onErrorResume(e -> {
+							log.warn("Bulk lookup on {} failed for {} ids: {}", apiUrl, chunk.size(), e.getMessage());
+							return Mono.just(BulkResponse.<T>failed(chunk));
+						}))
+				.collectList()
+				.map(parts -> {
+					final Map<Integer, T> found = new HashMap<>();
+					final Set<Integer> failed = new HashSet<>();
+					parts.forEach(part -> {
+						found.putAll(part.getFound());
+						failed.addAll(part.getFailed());
+					});
+					return BulkResponse.of(found, failed);
+				});
+	}
+
+	// Unlike Mono.toFuture(), completing or cancelling the future from outside, as a time limiter or
+	// deadline does, disposes the subscription and with it the request
+	private static <T> CompletableFuture<T> future(final Mono<T> mono) {
+		final CompletableFuture<T> future = new CompletableFuture<>();
+		final Disposable subscription = mono.subscribe(future::complete, future::completeExceptionally, () -> future.complete(null));
+		future.whenComplete((value, e) -> subscription.dispose());
+		return future;
+	}
+
+	private <T> Flux<Map.Entry<Integer, T>> fetchChunk(
+			final String apiUrl,
+			final List<Integer> chunk,
+			final ParameterizedTypeReference<DtoCollectionResponse<T>> responseType,
+			final Function<T, Integer> idExtractor) {
+		final String ids = chunk.stream()
+				.map(String::valueOf)
+				.collect(Collectors.joining(","));
+		return this.webClient.get()
+				.uri(apiUrl + "?ids=" + ids)
+				.retrieve()
+				.bodyToMono(responseType)
+				.flatMapIterable(response -> response.getCollection() != null
+						? response.getCollection()
+						: List.<T>of())
+				.filter(dto -> idExtractor.apply(dto) != null)
+				.map(dto -> Map.entry(idExtractor.apply(dto), dto));
+	}
+
+}
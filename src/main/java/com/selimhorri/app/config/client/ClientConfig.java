@@ -1,20 +1,116 @@
 package com.selimhorri.app.config.client;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import com.selimhorri.app.client.Deadline;
+import com.selimhorri.app.client.http.JdkClientHttpRequestFactory;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+
 @Configuration
+@EnableConfigurationProperties(ClientProperties.class)
 public class ClientConfig {
 	
 	@LoadBalanced
 	@Bean
-	public RestTemplate restTemplateBean() {
-		return new RestTemplate();
+	public RestTemplate restTemplateBean(final ClientHttpRequestFactory downstreamRequestFactory) {
+		return new RestTemplate(downstreamRequestFactory);
+	}
+	
+	@Bean(destroyMethod = "shutdown")
+	@ConditionalOnProperty(prefix = "app.client.http", name = "protocol", havingValue = "HTTP_1_1", matchIfMissing = true)
+	public PoolingHttpClientConnectionManager downstreamConnectionManager(final ClientProperties clientProperties) {
+		final var http = clientProperties.getHttp();
+		final var connectionManager = new PoolingHttpClientConnectionManager(
+				http.getTimeToLive().toMillis(), TimeUnit.MILLISECONDS);
+		connectionManager.setMaxTotal(http.getMaxConnections());
+		connectionManager.setDefaultMaxPerRoute(http.getMaxConnectionsPerRoute());
+		connectionManager.setValidateAfterInactivity((int) http.getValidateAfterInactivity().toMillis());
+		return connectionManager;
 	}
 	
-	// Hello
+	@Bean(destroyMethod = "close")
+	@ConditionalOnProperty(prefix = "app.client.http", name = "protocol", havingValue = "HTTP_1_1", matchIfMissing = true)
+	public CloseableHttpClient downstreamHttpClient(
+			final PoolingHttpClientConnectionManager downstreamConnectionManager, 
+			final ClientProperties clientProperties) {
+		final var http = clientProperties.getHttp();
+		return HttpClients.custom()
+				.setConnectionManager(downstreamConnectionManager)
+				.setDefaultRequestConfig(requestConfig(http))
+				.evictExpiredConnections()
+				.evictIdleConnections(http.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+				.build();
+	}
+	
+	@Bean
+	@ConditionalOnProperty(prefix = "app.client.http", name = "protocol", havingValue = "HTTP_1_1", matchIfMissing = true)
+	public ClientHttpRequestFactory pooledRequestFactory(
+			final CloseableHttpClient downstreamHttpClient, 
+			final ClientProperties clientProperties) {
+		final var http = clientProperties.getHttp();
+		return new HttpComponentsClientHttpRequestFactory(downstreamHttpClient) {
+			
+			// Blocking reads cannot be interrupted, so a call never waits on the pool or the socket
+			// past the deadline of the request it serves
+			@Override
+			protected HttpContext createHttpContext(final HttpMethod httpMethod, final URI uri) {
+				if (Deadline.current() == null) {
+					return null;
+				}
+				final HttpClientContext context = HttpClientContext.create();
+				context.setRequestConfig(requestConfig(http));
+				return context;
+			}
+			
+		};
+	}
+	
+	private static RequestConfig requestConfig(final ClientProperties.Http http) {
+		return RequestConfig.custom()
+				.setConnectTimeout((int) Deadline.cap(http.getConnectTimeout()).toMillis())
+				.setSocketTimeout((int) Deadline.cap(http.getReadTimeout()).toMillis())
+				.setConnectionRequestTimeout((int) Deadline.cap(http.getConnectionRequestTimeout()).toMillis())
+				.build();
+	}
+	
+	// Leased/pending/available connections, exported as httpcomponents_httpclient_pool_*{httpclient="downstream"}
+	@Bean
+	@ConditionalOnProperty(prefix = "app.client.http", name = "protocol", havingValue = "HTTP_1_1", matchIfMissing = true)
+	public MeterBinder downstreamConnectionPoolMetrics(final PoolingHttpClientConnectionManager downstreamConnectionManager) {
+		return new PoolingHttpClientConnectionManagerMetricsBinder(downstreamConnectionManager, "downstream");
+	}
+	
+	@Bean
+	@ConditionalOnProperty(prefix = "app.client.http", name = "protocol", havingValue = "HTTP_2")
+	public ClientHttpRequestFactory http2RequestFactory(final ClientProperties clientProperties) {
+		final var http = clientProperties.getHttp();
+		return new JdkClientHttpRequestFactory(
+				HttpClient.newBuilder()
+						.version(HttpClient.Version.HTTP_2)
+						.connectTimeout(http.getConnectTimeout())
+						.build(),
+				http.getReadTimeout());
+	}
 	
 }
 
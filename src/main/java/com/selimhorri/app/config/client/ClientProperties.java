@@ -0,0 +1,70 @@
+package com.selimhorri.app.config.client;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.client")
+@Data
+public class ClientProperties {
+
+	/**
+	 * rest-template (blocking calls on a pool per downstream, sized by its bulkhead) or web-client
+	 * (non-blocking, event loop).
+	 */
+	private String transport = "rest-template";
+	private int maxInFlight = 512;
+	private final Downstream user = new Downstream();
+	private final Downstream product = new Downstream();
+	private final Http http = new Http();
+
+	@Data
+	public static class Downstream {
+
+		private boolean bulkEnabled = false;
+		private int bulkChunkSize = 100;
+		private final Cache cache = new Cache();
+
+	}
+
+	@Data
+	public static class Http {
+
+		private Protocol protocol = Protocol.HTTP_1_1;
+		private int maxConnections = 200;
+		private int maxConnectionsPerRoute = 50;
+		private Duration connectTimeout = Duration.ofSeconds(2);
+		private Duration readTimeout = Duration.ofSeconds(5);
+		private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+		private Duration idleTimeout = Duration.ofSeconds(30);
+		private Duration timeToLive = Duration.ofMinutes(5);
+		private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+		public enum Protocol {
+			HTTP_1_1, HTTP_2
+		}
+
+	}
+
+	@Data
+	public static class Cache {
+
+		private long maximumSize = 10_000;
+		private Duration timeToLive = Duration.ofMinutes(10);
+		private Duration refreshAfter = Duration.ofMinutes(1);
+
+	}
+
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,50 @@
+package com.selimhorri.app.config.client;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.client", name = "transport", havingValue = "web-client")
+public class WebClientConfig {
+	
+	@LoadBalanced
+	@Bean
+	public WebClient.Builder loadBalancedWebClientBuilder(final ClientProperties clientProperties) {
+		final var http = clientProperties.getHttp();
+		final var connectionProvider = ConnectionProvider.builder("downstream")
+				.maxConnections(http.getMaxConnections())
+				.pendingAcquireTimeout(http.getConnectionRequestTimeout())
+				.maxIdleTime(http.getIdleTimeout())
+				.maxLifeTime(http.getTimeToLive())
+				.metrics(true)
+				.build();
+		final var httpClient = HttpClient.create(connectionProvider)
+				.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) http.getConnectTimeout().toMillis())
+				.responseTimeout(http.getReadTimeout())
+				.protocol(http.getProtocol() == ClientProperties.Http.Protocol.HTTP_2
+						? new HttpProtocol[] { HttpProtocol.H2C, HttpProtocol.HTTP11 }
+						: new HttpProtocol[] { HttpProtocol.HTTP11 });
+		return WebClient.builder()
+				.clientConnector(new ReactorClientHttpConnector(httpClient));
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,70 @@
+package com.selimhorri.app.config.deadline;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.selimhorri.app.client.Deadline;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Starts the request deadline from the X-Request-Timeout header, or when the caller sends none (or
+ * one that does not parse) from app.deadline.default-budget for reads and app.deadline.write-budget
+ * for writes, which verify every id they store and have nothing partial to answer with.
+ */
+@Component
+@Slf4j
+public class DeadlineFilter extends OncePerRequestFilter {
+
+	private final Duration defaultBudget;
+	private final Duration writeBudget;
+
+	public DeadlineFilter(
+			@Value("${app.deadline.default-budget:250ms}") final Duration defaultBudget,
+			@Value("${app.deadline.write-budget:30s}") final Duration writeBudget) {
+		this.defaultBudget = defaultBudget;
+		this.writeBudget = writeBudget;
+	}
+
+	@Override
+	protected void doFilterInternal(
+			final HttpServletRequest request,
+			final HttpServletResponse response,
+			final FilterChain filterChain) throws ServletException, IOException {
+		final boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+		Deadline.set(Deadline.after(this.budgetOf(
+				request.getHeader(Deadline.HEADER), read ? this.defaultBudget : this.writeBudget)));
+		try {
+			filterChain.doFilter(request, response);
+		}
+		finally {
+			Deadline.clear();
+		}
+	}
+
+	private Duration budgetOf(final String header, final Duration fallback) {
+		if (header == null || header.isBlank()) {
+			return fallback;
+		}
+		try {
+			final Duration budget = DurationStyle.detectAndParse(header.trim());
+			return budget.isNegative() ? fallback : budget;
+		}
+		catch (IllegalArgumentException e) {
+			log.debug("Ignoring {} header [{}]: {}", Deadline.HEADER, header, e.getMessage());
+			return fallback;
+		}
+	}
+
+}
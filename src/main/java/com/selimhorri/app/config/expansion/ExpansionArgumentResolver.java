@@ -0,0 +1,61 @@
+package com.selimhorri.app.config.expansion;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import com.selimhorri.app.dto.Expansion;
+
+/**
+ * Resolves ?expand= (or the configured default when absent). When ?fields= is present as well, an
+ * expansion whose property is not listed there is dropped, since it would not be serialized.
+ */
+public class ExpansionArgumentResolver implements HandlerMethodArgumentResolver {
+	
+	public static final String EXPAND = "expand";
+	public static final String FIELDS = "fields";
+	
+	private final Set<Expansion> defaultExpansions;
+	
+	public ExpansionArgumentResolver(final Set<Expansion> defaultExpansions) {
+		this.defaultExpansions = defaultExpansions;
+	}
+	
+	@Override
+	public boolean supportsParameter(final MethodParameter parameter) {
+		return parameter.hasParameterAnnotation(RequestExpansion.class);
+	}
+	
+	@Override
+	public Set<Expansion> resolveArgument(
+			final MethodParameter parameter,
+			final ModelAndViewContainer mavContainer,
+			final NativeWebRequest webRequest,
+			final WebDataBinderFactory binderFactory) {
+		final String expand = webRequest.getParameter(EXPAND);
+		final Set<Expansion> expansions = expand == null ? this.defaultExpansions : Expansion.parse(expand);
+		final String fields = webRequest.getParameter(FIELDS);
+		if (fields == null || fields.isBlank()) {
+			return expansions;
+		}
+		final Set<String> requested = fieldsOf(fields);
+		return expansions.stream()
+				.filter(expansion -> requested.contains(expansion.name().toLowerCase(Locale.ROOT)))
+				.collect(Collectors.toUnmodifiableSet());
+	}
+	
+	public static Set<String> fieldsOf(final String fields) {
+		return Arrays.stream(fields.split(","))
+				.map(String::trim)
+				.filter(field -> !field.isEmpty())
+				.collect(Collectors.toUnmodifiableSet());
+	}
+	
+}
@@ -0,0 +1,27 @@
+package com.selimhorri.app.config.expansion;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.selimhorri.app.dto.Expansion;
+
+@Configuration
+public class ExpansionConfig implements WebMvcConfigurer {
+	
+	private final String defaultExpand;
+	
+	// user,product keeps the responses existing callers get; an empty value makes expansion opt-in
+	public ExpansionConfig(@Value("${app.expand.default:user,product}") final String defaultExpand) {
+		this.defaultExpand = defaultExpand;
+	}
+	
+	@Override
+	public void addArgumentResolvers(final List<HandlerMethodArgumentResolver> resolvers) {
+		resolvers.add(new ExpansionArgumentResolver(Expansion.parse(this.defaultExpand)));
+	}
+	
+}
@@ -0,0 +1,52 @@
+package com.selimhorri.app.config.expansion;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.resource.FavouriteResource;
+
+/**
+ * Applies ?fields= to the favourites of GET responses (JSON, Smile and CBOR alike); the names are
+ * the JSON ones, e.g. userId,productId,likeDate.
+ */
+@RestControllerAdvice(assignableTypes = FavouriteResource.class)
+public class FieldsResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+	
+	private static final String PARTIAL = "partial";
+	
+	@Override
+	protected void beforeBodyWriteInternal(
+			final MappingJacksonValue bodyContainer,
+			final MediaType contentType,
+			final MethodParameter returnType,
+			final ServerHttpRequest request,
+			final ServerHttpResponse response) {
+		if (request.getMethod() != HttpMethod.GET || !(request instanceof ServletServerHttpRequest)) {
+			return;
+		}
+		final String fields = ((ServletServerHttpRequest) request).getServletRequest()
+				.getParameter(ExpansionArgumentResolver.FIELDS);
+		if (fields == null || fields.isBlank()) {
+			return;
+		}
+		// The partial flag is about the response, not a field the caller can leave out
+		final Set<String> requested = new HashSet<>(ExpansionArgumentResolver.fieldsOf(fields));
+		requested.add(PARTIAL);
+		bodyContainer.setFilters(new SimpleFilterProvider()
+				.addFilter(FavouriteDto.FIELDS_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(requested)));
+	}
+	
+}
@@ -0,0 +1,17 @@
+package com.selimhorri.app.config.mapper;
+
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import com.selimhorri.app.constant.AppConstant;
+
+/**
+ * LocalDateTimeDeserializer bound to the shared, already compiled LOCAL_DATE_TIME_FORMATTER.
+ */
+public class FormattedLocalDateTimeDeserializer extends LocalDateTimeDeserializer {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public FormattedLocalDateTimeDeserializer() {
+		super(AppConstant.LOCAL_DATE_TIME_FORMATTER);
+	}
+	
+}
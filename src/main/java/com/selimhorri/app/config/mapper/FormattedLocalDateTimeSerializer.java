@@ -0,0 +1,17 @@
+package com.selimhorri.app.config.mapper;
+
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import com.selimhorri.app.constant.AppConstant;
+
+/**
+ * LocalDateTimeSerializer bound to the shared, already compiled LOCAL_DATE_TIME_FORMATTER.
+ */
+public class FormattedLocalDateTimeSerializer extends LocalDateTimeSerializer {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public FormattedLocalDateTimeSerializer() {
+		super(AppConstant.LOCAL_DATE_TIME_FORMATTER);
+	}
+	
+}
@@ -1,31 +1,52 @@
 package com.selimhorri.app.config.mapper;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 
 @Configuration
 public class MapperConfig {
 	
+	// Indentation only helps humans reading responses, so it is off unless the profile asks for it
 	@Bean
-	public ObjectMapper objectMapperBean() {
-		return new JsonMapper()
-				.enable(SerializationFeature.INDENT_OUTPUT);
+	@Primary
+	public ObjectMapper objectMapperBean(@Value("${app.json.indent-output:false}") final boolean indentOutput) {
+		return configure(JsonMapper.builder())
+				.configure(SerializationFeature.INDENT_OUTPUT, indentOutput)
+				.build();
+	}
+	
+	@Bean
+	public SmileMapper smileMapper() {
+		return configure(SmileMapper.builder()).build();
+	}
+	
+	@Bean
+	public CBORMapper cborMapper() {
+		return configure(CBORMapper.builder()).build();
+	}
+	
+	// Blackbird replaces reflective getters/setters with generated lambdas; property filters
+	// serialize everything unless a response sets its own
+	private static <M extends ObjectMapper, B extends MapperBuilder<M, B>> B configure(final B builder) {
+		return builder
+				.filterProvider(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()))
+				.addModule(new JavaTimeModule())
+				.addModule(new BlackbirdModule());
 	}
 	
 	
 	
 }
-
-
-
-
-
-
-
-
-
-
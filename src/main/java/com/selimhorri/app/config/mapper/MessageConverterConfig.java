@@ -0,0 +1,38 @@
+package com.selimhorri.app.config.mapper;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Smile (application/x-jackson-smile) and CBOR (application/cbor) for callers that ask for them
+ * in Accept or send them as Content-Type. They go after the JSON converter, so JSON stays the
+ * default when the caller accepts anything.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class MessageConverterConfig implements WebMvcConfigurer {
+	
+	private final SmileMapper smileMapper;
+	private final CBORMapper cborMapper;
+	
+	@Override
+	public void extendMessageConverters(final List<HttpMessageConverter<?>> converters) {
+		// Spring registers its own binary converters once the formats are on the classpath; those
+		// would not share the application's modules
+		converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+				|| converter instanceof MappingJackson2CborHttpMessageConverter);
+		converters.add(new MappingJackson2SmileHttpMessageConverter(this.smileMapper));
+		converters.add(new MappingJackson2CborHttpMessageConverter(this.cborMapper));
+	}
+	
+}
@@ -0,0 +1,10 @@
+package com.selimhorri.app.config.trending;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(TrendingProperties.class)
+public class TrendingConfig {
+	
+}
@@ -0,0 +1,25 @@
+package com.selimhorri.app.config.trending;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.trending")
+@Data
+public class TrendingProperties {
+
+	/**
+	 * Granularity of the sliding windows; a window is rounded up to whole buckets.
+	 */
+	private Duration bucketWidth = Duration.ofMinutes(5);
+	private Duration retention = Duration.ofHours(24);
+
+	/**
+	 * Products tracked per bucket, so memory is bounded by (retention / bucket-width) * 2 * capacity
+	 * entries whatever the catalogue size. Also the largest k that can be asked for.
+	 */
+	private int capacity = 500;
+
+}
@@ -1,5 +1,7 @@
 package com.selimhorri.app.constant;
 
+import java.time.format.DateTimeFormatter;
+
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
@@ -10,6 +12,14 @@ public abstract class AppConstant {
 	public static final String LOCAL_DATE_TIME_FORMAT = "dd-MM-yyyy__HH:mm:ss:SSSSSS";
 	public static final String ZONED_DATE_TIME_FORMAT = "dd-MM-yyyy__HH:mm:ss:SSSSSS";
 	public static final String INSTANT_FORMAT = "dd-MM-yyyy__HH:mm:ss:SSSSSS";
+	public static final DateTimeFormatter LOCAL_DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern(LOCAL_DATE_TIME_FORMAT);
+	
+	public static final int DEFAULT_PAGE_LIMIT = 50;
+	public static final int MAX_PAGE_LIMIT = 1000;
+	public static final int STREAM_FETCH_SIZE = 500;
+	public static final int MAX_BATCH_SIZE = 10_000;
+	public static final int MAX_CONTAINS_SIZE = 1000;
+	public static final int JDBC_BATCH_SIZE = 500;
 	
 	@NoArgsConstructor(access = AccessLevel.PRIVATE)
 	public abstract class DiscoveredDomainsApi {
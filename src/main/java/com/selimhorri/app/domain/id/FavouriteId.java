@@ -7,12 +7,10 @@ import javax.validation.constraints.NotNull;
 
 import org.springframework.format.annotation.DateTimeFormat;
 
-import com.fasterxml.jackson.annotation.JsonFormat;
-import com.fasterxml.jackson.annotation.JsonFormat.Shape;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
-import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
-import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import com.selimhorri.app.config.mapper.FormattedLocalDateTimeDeserializer;
+import com.selimhorri.app.config.mapper.FormattedLocalDateTimeSerializer;
 import com.selimhorri.app.constant.AppConstant;
 
 import lombok.AllArgsConstructor;
@@ -33,9 +31,8 @@ public class FavouriteId implements Serializable {
 	private Integer productId;
 	
 	@NotNull
-	@JsonSerialize(using = LocalDateTimeSerializer.class)
-	@JsonDeserialize(using = LocalDateTimeDeserializer.class)
-	@JsonFormat(pattern = AppConstant.LOCAL_DATE_TIME_FORMAT, shape = Shape.STRING)
+	@JsonSerialize(using = FormattedLocalDateTimeSerializer.class)
+	@JsonDeserialize(using = FormattedLocalDateTimeDeserializer.class)
 	@DateTimeFormat(pattern = AppConstant.LOCAL_DATE_TIME_FORMAT)
 	private LocalDateTime likeDate;
 	
@@ -0,0 +1,40 @@
+package com.selimhorri.app.dto;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+import com.selimhorri.app.exception.wrapper.InvalidExpansionException;
+
+/**
+ * Related resources a favourite can be expanded with; each one costs a downstream lookup.
+ */
+public enum Expansion {
+	
+	USER, PRODUCT;
+	
+	public static final Set<Expansion> ALL = Set.of(USER, PRODUCT);
+	public static final Set<Expansion> NONE = Set.of();
+	
+	/**
+	 * Comma separated names, case insensitive, e.g. "user,product".
+	 */
+	public static Set<Expansion> parse(final String expand) {
+		final Set<Expansion> expansions = EnumSet.noneOf(Expansion.class);
+		for (final String name : expand.split(",")) {
+			if (name.isBlank()) {
+				continue;
+			}
+			try {
+				expansions.add(Expansion.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+			}
+			catch (IllegalArgumentException e) {
+				throw new InvalidExpansionException(String.format("Expand: [%s] is not one of %s",
+						name.trim(), Arrays.toString(values()).toLowerCase(Locale.ROOT)), e);
+			}
+		}
+		return Set.copyOf(expansions);
+	}
+	
+}
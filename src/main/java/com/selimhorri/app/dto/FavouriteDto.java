@@ -7,15 +7,14 @@ import javax.validation.constraints.NotNull;
 
 import org.springframework.format.annotation.DateTimeFormat;
 
-import com.fasterxml.jackson.annotation.JsonFormat;
-import com.fasterxml.jackson.annotation.JsonFormat.Shape;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
-import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
-import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import com.selimhorri.app.config.mapper.FormattedLocalDateTimeDeserializer;
+import com.selimhorri.app.config.mapper.FormattedLocalDateTimeSerializer;
 import com.selimhorri.app.constant.AppConstant;
 
 import lombok.AllArgsConstructor;
@@ -27,19 +26,24 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Data
 @Builder
+@JsonFilter(FavouriteDto.FIELDS_FILTER)
 public class FavouriteDto implements Serializable {
 	
 	private static final long serialVersionUID = 1L;
 	
+	/**
+	 * Serializes every property unless a request narrows it down with ?fields=.
+	 */
+	public static final String FIELDS_FILTER = "favouriteFields";
+	
 	@NotNull(message = "Field must not be NULL")
 	private Integer userId;
 	
 	@NotNull(message = "Field must not be NULL")
 	private Integer productId;
 	
-	@JsonSerialize(using = LocalDateTimeSerializer.class)
-	@JsonDeserialize(using = LocalDateTimeDeserializer.class)
-	@JsonFormat(pattern = AppConstant.LOCAL_DATE_TIME_FORMAT, shape = Shape.STRING)
+	@JsonSerialize(using = FormattedLocalDateTimeSerializer.class)
+	@JsonDeserialize(using = FormattedLocalDateTimeDeserializer.class)
 	@DateTimeFormat(pattern = AppConstant.LOCAL_DATE_TIME_FORMAT)
 	private LocalDateTime likeDate;
 	
@@ -51,6 +55,22 @@ public class FavouriteDto implements Serializable {
 	@JsonInclude(Include.NON_NULL)
 	private ProductDto productDto;
 	
+	/**
+	 * Set on a single favourite whose requested user or product did not resolve in time.
+	 */
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+	@JsonInclude(Include.NON_NULL)
+	private Boolean partial;
+	
+	/**
+	 * Target of the JPQL constructor projections, rows are read straight into the DTO.
+	 */
+	public FavouriteDto(final Integer userId, final Integer productId, final LocalDateTime likeDate) {
+		this.userId = userId;
+		this.productId = productId;
+		this.likeDate = likeDate;
+	}
+	
 }
 
 
@@ -0,0 +1,33 @@
+package com.selimhorri.app.dto;
+
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class TrendingProductDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private Integer productId;
+	
+	/**
+	 * Likes in the window; may over-estimate by at most the count of the least liked product kept.
+	 */
+	private Long count;
+	
+	@JsonProperty("product")
+	@JsonInclude(Include.NON_NULL)
+	private ProductDto productDto;
+	
+}
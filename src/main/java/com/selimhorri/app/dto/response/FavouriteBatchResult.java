@@ -0,0 +1,37 @@
+package com.selimhorri.app.dto.response;
+
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.selimhorri.app.dto.FavouriteDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class FavouriteBatchResult implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private Integer index;
+	private Integer userId;
+	private Integer productId;
+	private Status status;
+	
+	@JsonInclude(Include.NON_NULL)
+	private String msg;
+	
+	@JsonInclude(Include.NON_NULL)
+	private FavouriteDto favourite;
+	
+	public enum Status {
+		CREATED, DUPLICATE, USER_NOT_FOUND, PRODUCT_NOT_FOUND, USER_UNAVAILABLE, PRODUCT_UNAVAILABLE, INVALID
+	}
+	
+}
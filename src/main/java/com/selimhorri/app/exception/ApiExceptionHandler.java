@@ -14,6 +14,10 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import com.selimhorri.app.exception.payload.ExceptionMsg;
 import com.selimhorri.app.exception.wrapper.DuplicateEntityException;
 import com.selimhorri.app.exception.wrapper.FavouriteNotFoundException;
+import com.selimhorri.app.exception.wrapper.InvalidBatchException;
+import com.selimhorri.app.exception.wrapper.InvalidCursorException;
+import com.selimhorri.app.exception.wrapper.InvalidExpansionException;
+import com.selimhorri.app.exception.wrapper.InvalidWindowException;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
 import com.selimhorri.app.exception.wrapper.UserNotFoundException;
 
@@ -44,6 +48,27 @@ public class ApiExceptionHandler {
 				badRequest);
 	}
 
+	@ExceptionHandler(value = {
+			InvalidCursorException.class,
+			InvalidBatchException.class,
+			InvalidWindowException.class,
+			InvalidExpansionException.class
+	})
+	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleApiInvalidRequestException(final T e) {
+
+		log.info("**ApiExceptionHandler controller, handle API invalid request*\n");
+		final var badRequest = HttpStatus.BAD_REQUEST;
+
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+						.msg("#### " + e.getMessage() + "! ####")
+						.httpStatus(badRequest)
+						.timestamp(ZonedDateTime
+								.now(ZoneId.systemDefault()))
+						.build(),
+				badRequest);
+	}
+
 	@ExceptionHandler(value = {
 			DuplicateEntityException.class
 	})
@@ -0,0 +1,23 @@
+package com.selimhorri.app.exception.wrapper;
+
+public class InvalidBatchException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public InvalidBatchException() {
+		super();
+	}
+	
+	public InvalidBatchException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public InvalidBatchException(String message) {
+		super(message);
+	}
+	
+	public InvalidBatchException(Throwable cause) {
+		super(cause);
+	}
+	
+}
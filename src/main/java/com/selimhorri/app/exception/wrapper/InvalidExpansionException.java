@@ -0,0 +1,23 @@
+package com.selimhorri.app.exception.wrapper;
+
+public class InvalidExpansionException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public InvalidExpansionException() {
+		super();
+	}
+	
+	public InvalidExpansionException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public InvalidExpansionException(String message) {
+		super(message);
+	}
+	
+	public InvalidExpansionException(Throwable cause) {
+		super(cause);
+	}
+	
+}
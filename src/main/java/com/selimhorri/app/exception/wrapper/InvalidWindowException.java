@@ -0,0 +1,23 @@
+package com.selimhorri.app.exception.wrapper;
+
+public class InvalidWindowException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public InvalidWindowException() {
+		super();
+	}
+	
+	public InvalidWindowException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public InvalidWindowException(String message) {
+		super(message);
+	}
+	
+	public InvalidWindowException(Throwable cause) {
+		super(cause);
+	}
+	
+}
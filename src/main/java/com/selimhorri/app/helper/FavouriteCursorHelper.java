@@ -0,0 +1,49 @@
+package com.selimhorri.app.helper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.selimhorri.app.domain.Favourite;
+import com.selimhorri.app.domain.id.FavouriteId;
+import com.selimhorri.app.exception.wrapper.InvalidCursorException;
+
+public interface FavouriteCursorHelper {
+	
+	public static String encode(final Favourite favourite) {
+		final String key = favourite.getUserId() + ":" + favourite.getProductId() + ":" + favourite.getLikeDate();
+		return Base64.getUrlEncoder()
+				.withoutPadding()
+				.encodeToString(key.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	public static FavouriteId decode(final String cursor) {
+		try {
+			final String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+					.split(":", 3);
+			if (parts.length != 3)
+				throw new InvalidCursorException(String.format("Cursor: [%s] is malformed", cursor));
+			return new FavouriteId(
+					Integer.parseInt(parts[0]),
+					Integer.parseInt(parts[1]),
+					LocalDateTime.parse(parts[2]));
+		}
+		catch (IllegalArgumentException | DateTimeParseException e) {
+			throw new InvalidCursorException(String.format("Cursor: [%s] is malformed", cursor), e);
+		}
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,55 @@
+package com.selimhorri.app.helper;
+
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.selimhorri.app.dto.Expansion;
+import com.selimhorri.app.repository.projection.FavouriteVersion;
+
+public interface FavouriteETagHelper {
+	
+	// Rows are never updated in place; the id sums catch a delete plus an insert that keep count and max like_date
+	public static String version(final FavouriteVersion version) {
+		final long lastLikeDate = version.getLastLikeDate() == null 
+				? 0 
+				: version.getLastLikeDate().toInstant(ZoneOffset.UTC).toEpochMilli();
+		final long checksum = 31 * Objects.requireNonNullElse(version.getUserIdSum(), 0L) 
+				+ Objects.requireNonNullElse(version.getProductIdSum(), 0L);
+		return Long.toHexString(version.getCount()) 
+				+ "-" + Long.toHexString(lastLikeDate) 
+				+ "-" + Long.toHexString(checksum);
+	}
+	
+	// The same rows are a different representation for each expansion, field list and Accept header
+	public static String of(final String version, final Set<Expansion> expansions, final String fields, final String accept) {
+		if (version == null)
+			return null;
+		final String representation = expansions.stream()
+				.sorted()
+				.map(Expansion::name)
+				.collect(Collectors.joining(",")) 
+				+ "|" + Objects.requireNonNullElse(fields, "") 
+				+ "|" + Objects.requireNonNullElse(accept, "");
+		return "W/\"" + version + "-" + Integer.toHexString(representation.hashCode()) + "\"";
+	}
+	
+	// Weak comparison, as If-None-Match requires
+	public static boolean matches(final String ifNoneMatch, final String etag) {
+		if (ifNoneMatch == null || etag == null)
+			return false;
+		final String opaqueTag = opaqueTag(etag);
+		return Arrays.stream(ifNoneMatch.split(","))
+				.map(String::trim)
+				.anyMatch(tag -> tag.equals("*") || opaqueTag(tag).equals(opaqueTag));
+	}
+	
+	private static String opaqueTag(final String etag) {
+		return etag.startsWith("W/") ? etag.substring(2) : etag;
+	}
+	
+	
+	
+}
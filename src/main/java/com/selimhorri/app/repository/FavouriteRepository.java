@@ -1,19 +1,169 @@
 package com.selimhorri.app.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.Favourite;
 import com.selimhorri.app.domain.id.FavouriteId;
+import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.repository.projection.FavouriteCount;
+import com.selimhorri.app.repository.projection.FavouriteVersion;
 
-public interface FavouriteRepository extends JpaRepository<Favourite, FavouriteId> {
+public interface FavouriteRepository extends JpaRepository<Favourite, FavouriteId>, FavouriteRepositoryCustom {
     Optional<Favourite> findByUserIdAndProductId(Integer userId, Integer productId);
 
-    void deleteByUserIdAndProductId(Integer userId, Integer productId);
+    // Constructor projections: no managed entities, snapshots, dirty checking or audit columns
+    @Query("SELECT new com.selimhorri.app.dto.FavouriteDto(f.userId, f.productId, f.likeDate) FROM Favourite f")
+    List<FavouriteDto> findAllDtos();
+
+    @Query("SELECT new com.selimhorri.app.dto.FavouriteDto(f.userId, f.productId, f.likeDate) "
+            + "FROM Favourite f "
+            + "WHERE f.userId = :userId AND f.productId = :productId")
+    Optional<FavouriteDto> findDtoByUserIdAndProductId(
+            @Param("userId") Integer userId,
+            @Param("productId") Integer productId);
+
+    // Scans the primary key columns of the whole table; FavouriteVersionService reuses the result
+    // between writes instead of running it on every conditional GET
+    @Query("SELECT COUNT(f) AS count, MAX(f.likeDate) AS lastLikeDate, "
+            + "SUM(f.userId) AS userIdSum, SUM(f.productId) AS productIdSum "
+            + "FROM Favourite f")
+    FavouriteVersion findVersion();
+
+    @Query("SELECT COUNT(f) AS count, MAX(f.likeDate) AS lastLikeDate, "
+            + "SUM(f.userId) AS userIdSum, SUM(f.productId) AS productIdSum "
+            + "FROM Favourite f "
+            + "WHERE f.userId = :userId AND f.productId = :productId")
+    FavouriteVersion findVersionByUserIdAndProductId(
+            @Param("userId") Integer userId,
+            @Param("productId") Integer productId);
+
+    // Single DELETE statements returning the affected rows, instead of Spring Data's load-then-remove
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Favourite f WHERE f.userId = :userId AND f.productId = :productId")
+    int deleteByUserIdAndProductId(@Param("userId") Integer userId, @Param("productId") Integer productId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Favourite f WHERE f.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Integer userId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Favourite f WHERE f.productId = :productId")
+    int deleteAllByProductId(@Param("productId") Integer productId);
 
     boolean existsByUserIdAndProductId(Integer userId, Integer productId);
 
-    
+    // Superset of the existing pairs; the caller keeps the ones it actually asked for
+    @Query("SELECT new com.selimhorri.app.domain.id.FavouriteId(f.userId, f.productId, f.likeDate) "
+            + "FROM Favourite f "
+            + "WHERE f.userId IN :userIds AND f.productId IN :productIds")
+    List<FavouriteId> findIdsByUserIdInAndProductIdIn(
+            @Param("userIds") Collection<Integer> userIds,
+            @Param("productIds") Collection<Integer> productIds);
+
+    List<Favourite> findAllByOrderByUserIdAscProductIdAscLikeDateAsc(Pageable pageable);
+
+    @Query("SELECT f FROM Favourite f "
+            + "WHERE f.userId >= :userId "
+            + "AND (f.userId > :userId "
+            + "OR (f.userId = :userId AND f.productId > :productId) "
+            + "OR (f.userId = :userId AND f.productId = :productId AND f.likeDate > :likeDate)) "
+            + "ORDER BY f.userId ASC, f.productId ASC, f.likeDate ASC")
+    List<Favourite> findAllAfter(
+            @Param("userId") Integer userId,
+            @Param("productId") Integer productId,
+            @Param("likeDate") LocalDateTime likeDate,
+            Pageable pageable);
+
+    // Both served by idx_favourites_user_id_like_date (V3)
+    List<Favourite> findAllByUserIdOrderByLikeDateDescProductIdDesc(Integer userId, Pageable pageable);
+
+    @Query("SELECT f FROM Favourite f "
+            + "WHERE f.userId = :userId "
+            + "AND f.likeDate <= :likeDate "
+            + "AND (f.likeDate < :likeDate OR f.productId < :productId) "
+            + "ORDER BY f.likeDate DESC, f.productId DESC")
+    List<Favourite> findAllByUserIdBefore(
+            @Param("userId") Integer userId,
+            @Param("productId") Integer productId,
+            @Param("likeDate") LocalDateTime likeDate,
+            Pageable pageable);
+
+    // Primary key prefix range
+    long countByUserId(Integer userId);
+
+    @Query("SELECT f.productId FROM Favourite f WHERE f.userId = :userId")
+    List<Integer> findProductIdsByUserId(@Param("userId") Integer userId);
+
+    // Primary key prefix range, no row lookups
+    @Query("SELECT DISTINCT f.productId FROM Favourite f WHERE f.userId = :userId AND f.productId IN :productIds")
+    List<Integer> findProductIdsByUserIdAndProductIdIn(
+            @Param("userId") Integer userId,
+            @Param("productIds") Collection<Integer> productIds);
+
+    @Query("SELECT f.userId FROM Favourite f WHERE f.productId = :productId")
+    List<Integer> findUserIdsByProductId(@Param("productId") Integer productId);
+
+    @Query("SELECT f.productId AS id, COUNT(f) AS count FROM Favourite f GROUP BY f.productId")
+    List<FavouriteCount> countGroupByProductId();
+
+    @Query("SELECT f.userId AS id, COUNT(f) AS count FROM Favourite f GROUP BY f.userId")
+    List<FavouriteCount> countGroupByUserId();
+
+    // All three served by idx_favourites_product_id_like_date (V4)
+    long countByProductId(Integer productId);
+
+    List<Favourite> findAllByProductIdOrderByLikeDateDescUserIdDesc(Integer productId, Pageable pageable);
+
+    @Query("SELECT f FROM Favourite f "
+            + "WHERE f.productId = :productId "
+            + "AND f.likeDate <= :likeDate "
+            + "AND (f.likeDate < :likeDate OR f.userId < :userId) "
+            + "ORDER BY f.likeDate DESC, f.userId DESC")
+    List<Favourite> findAllByProductIdBefore(
+            @Param("productId") Integer productId,
+            @Param("userId") Integer userId,
+            @Param("likeDate") LocalDateTime likeDate,
+            Pageable pageable);
+
+    @QueryHints(value = {
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + AppConstant.STREAM_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("SELECT f FROM Favourite f")
+    Stream<Favourite> streamAll();
+
+    @QueryHints(value = {
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + AppConstant.STREAM_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("SELECT new com.selimhorri.app.domain.id.FavouriteId(f.userId, f.productId, f.likeDate) "
+            + "FROM Favourite f "
+            + "WHERE f.likeDate >= :since")
+    Stream<FavouriteId> streamIdsLikedSince(@Param("since") LocalDateTime since);
+
+    @QueryHints(value = {
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + AppConstant.STREAM_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("SELECT new com.selimhorri.app.domain.id.FavouriteId(f.userId, f.productId, f.likeDate) FROM Favourite f")
+    Stream<FavouriteId> streamAllIds();
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,23 @@
+package com.selimhorri.app.repository;
+
+import java.util.List;
+
+import com.selimhorri.app.domain.Favourite;
+import com.selimhorri.app.domain.id.FavouriteId;
+
+public interface FavouriteRepositoryCustom {
+
+    /**
+     * Inserts new favourites with plain persist calls, so Hibernate can send them as JDBC batches
+     * instead of issuing a merge-select for each one.
+     */
+    void persistAll(List<Favourite> favourites);
+
+    /**
+     * Deletes every favourite matching one of the (userId, productId) pairs, likeDate is ignored, and
+     * returns the ones deleted. Per chunk of pairs, one SELECT of those that exist and one DELETE of
+     * them, both with the pairs OR-ed together.
+     */
+    List<FavouriteId> deleteAllByUserIdAndProductId(List<FavouriteId> favouriteIds);
+
+}
@@ -0,0 +1,72 @@
+package com.selimhorri.app.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.Favourite;
+import com.selimhorri.app.domain.id.FavouriteId;
+
+public class FavouriteRepositoryCustomImpl implements FavouriteRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void persistAll(final List<Favourite> favourites) {
+        for (int i = 0; i < favourites.size(); i++) {
+            this.entityManager.persist(favourites.get(i));
+            // Flushing at the JDBC batch size keeps each batch full and the persistence context small
+            if ((i + 1) % AppConstant.JDBC_BATCH_SIZE == 0) {
+                this.entityManager.flush();
+                this.entityManager.clear();
+            }
+        }
+        this.entityManager.flush();
+        this.entityManager.clear();
+    }
+
+    @Override
+    @Transactional
+    public List<FavouriteId> deleteAllByUserIdAndProductId(final List<FavouriteId> favouriteIds) {
+        final List<FavouriteId> deleted = new ArrayList<>();
+        for (int from = 0; from < favouriteIds.size(); from += AppConstant.JDBC_BATCH_SIZE) {
+            final List<FavouriteId> chunk = favouriteIds.subList(from,
+                    Math.min(from + AppConstant.JDBC_BATCH_SIZE, favouriteIds.size()));
+            final List<FavouriteId> existing = bind(this.entityManager.createQuery(
+                    "SELECT new com.selimhorri.app.domain.id.FavouriteId(f.userId, f.productId, f.likeDate) "
+                            + "FROM Favourite f WHERE " + anyOf(chunk.size()), FavouriteId.class), chunk)
+                    .getResultList();
+            if (!existing.isEmpty()) {
+                bind(this.entityManager.createQuery("DELETE FROM Favourite f WHERE " + anyOf(existing.size())), existing)
+                        .executeUpdate();
+                deleted.addAll(existing);
+            }
+        }
+        return deleted;
+    }
+
+    private static String anyOf(final int pairs) {
+        return IntStream.range(0, pairs)
+                .mapToObj(i -> "(f.userId = :u" + i + " AND f.productId = :p" + i + ")")
+                .collect(Collectors.joining(" OR "));
+    }
+
+    private static <Q extends Query> Q bind(final Q query, final List<FavouriteId> pairs) {
+        for (int i = 0; i < pairs.size(); i++) {
+            query.setParameter("u" + i, pairs.get(i).getUserId());
+            query.setParameter("p" + i, pairs.get(i).getProductId());
+        }
+        return query;
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.selimhorri.app.repository.projection;
+
+public interface FavouriteCount {
+
+    Integer getId();
+
+    Long getCount();
+
+}
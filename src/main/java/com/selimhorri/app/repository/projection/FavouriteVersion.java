@@ -0,0 +1,15 @@
+package com.selimhorri.app.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface FavouriteVersion {
+
+    Long getCount();
+
+    LocalDateTime getLastLikeDate();
+
+    Long getUserIdSum();
+
+    Long getProductIdSum();
+
+}
@@ -1,8 +1,18 @@
 package com.selimhorri.app.resource;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,12 +20,29 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
+import com.selimhorri.app.config.expansion.ExpansionArgumentResolver;
+import com.selimhorri.app.config.expansion.RequestExpansion;
+import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.id.FavouriteId;
+import com.selimhorri.app.dto.Expansion;
 import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.TrendingProductDto;
+import com.selimhorri.app.dto.response.FavouriteBatchResult;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.exception.wrapper.InvalidWindowException;
+import com.selimhorri.app.helper.FavouriteETagHelper;
 import com.selimhorri.app.service.FavouriteService;
+import com.selimhorri.app.service.TrendingService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,20 +54,140 @@ import lombok.extern.slf4j.Slf4j;
 public class FavouriteResource {
 	
 	private final FavouriteService favouriteService;
+	private final ObjectMapper objectMapper;
+	private final TrendingService trendingService;
 	
 	@GetMapping
-	public ResponseEntity<DtoCollectionResponse<FavouriteDto>> findAll() {
+	public ResponseEntity<DtoCollectionResponse<FavouriteDto>> findAll(
+			@RequestExpansion final Set<Expansion> expansions, 
+			final WebRequest webRequest) {
 		log.info("*** FavouriteDto List, controller; fetch all favourites *");
-		return ResponseEntity.ok(new DtoCollectionResponse<>(this.favouriteService.findAll()));
+		// Answered from the version alone when the client already holds it, before any rows are read
+		final String etag = etagOf(this.favouriteService.findVersion(), expansions, webRequest);
+		if (FavouriteETagHelper.matches(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH), etag))
+			return notModified(etag);
+		final DtoCollectionResponse<FavouriteDto> response = this.favouriteService.findAll(expansions);
+		// A partial body is never tagged, the next poll has to fetch the complete one
+		return tagged(Boolean.TRUE.equals(response.getPartial()) ? null : etag, response);
+	}
+	
+	// Pages are not tagged: their latency must not depend on the size of the table
+	@GetMapping(params = "limit")
+	public ResponseEntity<DtoCollectionResponse<FavouriteDto>> findAll(
+			@RequestParam("limit") final Integer limit, 
+			@RequestParam(name = "after", required = false) final String after, 
+			@RequestExpansion final Set<Expansion> expansions) {
+		log.info("*** FavouriteDto List, controller; fetch favourites page *");
+		return ResponseEntity.ok(this.favouriteService.findAll(limit, after, expansions));
+	}
+	
+	// A cursor without a limit still gets a bounded page instead of the whole table
+	@GetMapping(params = { "after", "!limit" })
+	public ResponseEntity<DtoCollectionResponse<FavouriteDto>> findAllAfter(
+			@RequestParam("after") final String after, 
+			@RequestExpansion final Set<Expansion> expansions) {
+		log.info("*** FavouriteDto List, controller; fetch favourites page with default limit *");
+		return this.findAll(AppConstant.DEFAULT_PAGE_LIMIT, after, expansions);
+	}
+	
+	@GetMapping("/users/{userId}")
+	public ResponseEntity<DtoCollectionResponse<FavouriteDto>> findAllByUserId(
+			@PathVariable("userId") final String userId, 
+			@RequestParam(name = "limit", defaultValue = "" + AppConstant.DEFAULT_PAGE_LIMIT) final Integer limit, 
+			@RequestParam(name = "after", required = false) final String after, 
+			@RequestExpansion final Set<Expansion> expansions) {
+		log.info("*** FavouriteDto List, controller; fetch favourites page of user *");
+		return ResponseEntity.ok(this.favouriteService.findAllByUserId(Integer.parseInt(userId), limit, after, expansions));
+	}
+	
+	@GetMapping("/products/{productId}")
+	public ResponseEntity<DtoCollectionResponse<FavouriteDto>> findAllByProductId(
+			@PathVariable("productId") final String productId, 
+			@RequestParam(name = "limit", defaultValue = "" + AppConstant.DEFAULT_PAGE_LIMIT) final Integer limit, 
+			@RequestParam(name = "after", required = false) final String after, 
+			@RequestExpansion final Set<Expansion> expansions) {
+		log.info("*** FavouriteDto List, controller; fetch favourites page of product *");
+		return ResponseEntity.ok(this.favouriteService.findAllByProductId(Integer.parseInt(productId), limit, after, expansions));
+	}
+	
+	@GetMapping("/products/{productId}/count")
+	public ResponseEntity<Long> countByProductId(@PathVariable("productId") final String productId) {
+		log.info("*** Long, controller; count favourites of product *");
+		return ResponseEntity.ok(this.favouriteService.countByProductId(Integer.parseInt(productId)));
+	}
+	
+	@PostMapping("/users/{userId}/contains")
+	public ResponseEntity<DtoCollectionResponse<Boolean>> containsAll(
+			@PathVariable("userId") final String userId, 
+			@RequestBody 
+			@NotNull(message = "Input must not be NULL") final List<Integer> productIds) {
+		log.info("*** Boolean List, controller; check favourited products of user *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(
+				this.favouriteService.containsAll(Integer.parseInt(userId), productIds)));
+	}
+	
+	@GetMapping("/users/{userId}/count")
+	public ResponseEntity<Long> countByUserId(@PathVariable("userId") final String userId) {
+		log.info("*** Long, controller; count favourites of user *");
+		return ResponseEntity.ok(this.favouriteService.countByUserId(Integer.parseInt(userId)));
+	}
+	
+	@GetMapping("/trending")
+	public ResponseEntity<DtoCollectionResponse<TrendingProductDto>> findTrending(
+			@RequestParam(name = "window", defaultValue = "1h") final String window, 
+			@RequestParam(name = "k", defaultValue = "50") final Integer k, 
+			@RequestExpansion final Set<Expansion> expansions) {
+		log.info("*** TrendingProductDto List, controller; fetch trending products *");
+		final Duration duration;
+		try {
+			duration = DurationStyle.detectAndParse(window);
+		}
+		catch (IllegalArgumentException e) {
+			throw new InvalidWindowException(String.format("Window: [%s] is malformed", window), e);
+		}
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.trendingService.findTrending(duration, k, expansions)));
+	}
+	
+	@GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> stream() {
+		log.info("*** FavouriteDto Stream, controller; stream all favourites *");
+		final ObjectWriter objectWriter = this.objectMapper.writer()
+				.without(SerializationFeature.INDENT_OUTPUT)
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		final StreamingResponseBody body = outputStream -> {
+			try (final JsonGenerator jsonGenerator = this.objectMapper.getFactory().createGenerator(outputStream)) {
+				jsonGenerator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+						.setRootValueSeparator(null);
+				this.favouriteService.streamAll(favouriteDto -> {
+					try {
+						objectWriter.writeValue(jsonGenerator, favouriteDto);
+						jsonGenerator.writeRaw('\n');
+					}
+					catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			}
+		};
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.body(body);
 	}
 	
 	@GetMapping("/{userId}/{productId}")
 	public ResponseEntity<FavouriteDto> findById(
 			@PathVariable("userId") final String userId, 
-			@PathVariable("productId") final String productId) {
+			@PathVariable("productId") final String productId, 
+			@RequestExpansion final Set<Expansion> expansions, 
+			final WebRequest webRequest) {
 		log.info("*** FavouriteDto, resource; fetch favourite by id *");
-		return ResponseEntity.ok(this.favouriteService.findById(
-				new FavouriteId(Integer.parseInt(userId), Integer.parseInt(productId), null )));
+		final FavouriteId favouriteId = new FavouriteId(Integer.parseInt(userId), Integer.parseInt(productId), null );
+		// A missing favourite has no version and falls through to the usual 404
+		final String etag = etagOf(this.favouriteService.findVersionById(favouriteId).orElse(null), expansions, webRequest);
+		if (FavouriteETagHelper.matches(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH), etag))
+			return notModified(etag);
+		final FavouriteDto favouriteDto = this.favouriteService.findById(favouriteId, expansions);
+		return tagged(Boolean.TRUE.equals(favouriteDto.getPartial()) ? null : etag, favouriteDto);
 	}
 	
 	@PostMapping
@@ -52,6 +199,14 @@ public class FavouriteResource {
 		return ResponseEntity.ok(this.favouriteService.save(favouriteDto));
 	}
 	
+	@PostMapping("/batch")
+	public ResponseEntity<DtoCollectionResponse<FavouriteBatchResult>> saveAll(
+			@RequestBody 
+			@NotNull(message = "Input must not be NULL") final List<FavouriteDto> favouriteDtos) {
+		log.info("*** FavouriteBatchResult List, resource; save favourites in batch *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.favouriteService.saveAll(favouriteDtos)));
+	}
+	
 	
 	@DeleteMapping("/{userId}/{productId}")
 	public ResponseEntity<Boolean> deleteById(
@@ -60,7 +215,49 @@ public class FavouriteResource {
 		log.info("*** Boolean, resource; delete favourite by id *");
 		this.favouriteService.deleteById(new FavouriteId(Integer.parseInt(userId), Integer.parseInt(productId), null));
 		return ResponseEntity.ok(true);
-	}	
+	}
+	
+	@DeleteMapping("/users/{userId}")
+	public ResponseEntity<Integer> deleteAllByUserId(@PathVariable("userId") final String userId) {
+		log.info("*** Integer, resource; delete all favourites of user *");
+		return ResponseEntity.ok(this.favouriteService.deleteAllByUserId(Integer.parseInt(userId)));
+	}
+	
+	@DeleteMapping("/products/{productId}")
+	public ResponseEntity<Integer> deleteAllByProductId(@PathVariable("productId") final String productId) {
+		log.info("*** Integer, resource; delete all favourites of product *");
+		return ResponseEntity.ok(this.favouriteService.deleteAllByProductId(Integer.parseInt(productId)));
+	}
+	
+	@PostMapping("/batch/delete")
+	public ResponseEntity<Integer> deleteAllById(
+			@RequestBody 
+			@NotNull(message = "Input must not be NULL") final List<FavouriteId> favouriteIds) {
+		log.info("*** Integer, resource; delete favourites in batch *");
+		return ResponseEntity.ok(this.favouriteService.deleteAllById(favouriteIds));
+	}
+	
+	private static String etagOf(final String version, final Set<Expansion> expansions, final WebRequest webRequest) {
+		return FavouriteETagHelper.of(version, expansions, 
+				webRequest.getParameter(ExpansionArgumentResolver.FIELDS), 
+				webRequest.getHeader(HttpHeaders.ACCEPT));
+	}
+	
+	private static <T> ResponseEntity<T> tagged(final String etag, final T body) {
+		final ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+				.varyBy(HttpHeaders.ACCEPT);
+		if (etag != null)
+			builder.eTag(etag);
+		return builder.body(body);
+	}
+	
+	private static <T> ResponseEntity<T> notModified(final String etag) {
+		return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+				.varyBy(HttpHeaders.ACCEPT)
+				.eTag(etag)
+				.build();
+	}
+	
 	
 }
 
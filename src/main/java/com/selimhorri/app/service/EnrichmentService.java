@@ -0,0 +1,27 @@
+package com.selimhorri.app.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import com.selimhorri.app.client.BulkResponse;
+import com.selimhorri.app.dto.Expansion;
+import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.UserDto;
+
+public interface EnrichmentService {
+	
+	/**
+	 * Resolves only the requested expansions. Favourites whose user or product does not exist are
+	 * dropped; those whose lookup failed or missed the request deadline are kept without it.
+	 */
+	List<FavouriteDto> enrich(final List<FavouriteDto> favouriteDtos, final Set<Expansion> expansions);
+	CompletableFuture<Optional<UserDto>> findUser(final Integer userId);
+	CompletableFuture<Optional<ProductDto>> findProduct(final Integer productId);
+	CompletableFuture<BulkResponse<UserDto>> findUsers(final Collection<Integer> userIds);
+	CompletableFuture<BulkResponse<ProductDto>> findProducts(final Collection<Integer> productIds);
+	
+}
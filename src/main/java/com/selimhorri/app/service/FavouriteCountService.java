@@ -0,0 +1,15 @@
+package com.selimhorri.app.service;
+
+import java.util.Collection;
+
+public interface FavouriteCountService {
+	
+	long countByProductId(final Integer productId);
+	long countByUserId(final Integer userId);
+	void added(final Integer userId, final Integer productId);
+	void removed(final Integer userId, final Integer productId, final int rows);
+	void removedByUserId(final Integer userId, final Collection<Integer> productIds);
+	void removedByProductId(final Integer productId, final Collection<Integer> userIds);
+	void reconcile();
+	
+}
@@ -1,15 +1,34 @@
 package com.selimhorri.app.service;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import com.selimhorri.app.domain.id.FavouriteId;
+import com.selimhorri.app.dto.Expansion;
 import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.response.FavouriteBatchResult;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 
 public interface FavouriteService {
 	
-	List<FavouriteDto> findAll();
-	FavouriteDto findById(final FavouriteId favouriteId);
+	DtoCollectionResponse<FavouriteDto> findAll(final Set<Expansion> expansions);
+	DtoCollectionResponse<FavouriteDto> findAll(final int limit, final String after, final Set<Expansion> expansions);
+	DtoCollectionResponse<FavouriteDto> findAllByUserId(final Integer userId, final int limit, final String after, final Set<Expansion> expansions);
+	DtoCollectionResponse<FavouriteDto> findAllByProductId(final Integer productId, final int limit, final String after, final Set<Expansion> expansions);
+	String findVersion();
+	Optional<String> findVersionById(final FavouriteId favouriteId);
+	void streamAll(final Consumer<FavouriteDto> consumer);
+	FavouriteDto findById(final FavouriteId favouriteId, final Set<Expansion> expansions);
 	FavouriteDto save(final FavouriteDto favouriteDto);
+	List<FavouriteBatchResult> saveAll(final List<FavouriteDto> favouriteDtos);
 	void deleteById(final FavouriteId favouriteId);
+	int deleteAllByUserId(final Integer userId);
+	int deleteAllByProductId(final Integer productId);
+	int deleteAllById(final List<FavouriteId> favouriteIds);
+	List<Boolean> containsAll(final Integer userId, final List<Integer> productIds);
+	long countByProductId(final Integer productId);
+	long countByUserId(final Integer userId);
 	
 }
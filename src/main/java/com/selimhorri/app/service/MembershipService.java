@@ -0,0 +1,14 @@
+package com.selimhorri.app.service;
+
+import java.util.Collection;
+
+public interface MembershipService {
+	
+	boolean isLoaded();
+	boolean contains(final Integer userId, final Integer productId);
+	void added(final Integer userId, final Integer productId);
+	void removed(final Integer userId, final Integer productId);
+	void removedByUserId(final Integer userId);
+	void removedByProductId(final Integer productId, final Collection<Integer> userIds);
+	
+}
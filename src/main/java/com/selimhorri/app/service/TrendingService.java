@@ -0,0 +1,16 @@
+package com.selimhorri.app.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import com.selimhorri.app.dto.Expansion;
+import com.selimhorri.app.dto.TrendingProductDto;
+
+public interface TrendingService {
+	
+	void record(final Integer productId, final LocalDateTime likeDate);
+	List<TrendingProductDto> findTrending(final Duration window, final int k, final Set<Expansion> expansions);
+	
+}
@@ -0,0 +1,124 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import com.selimhorri.app.client.BulkResponse;
+import com.selimhorri.app.client.Deadline;
+import com.selimhorri.app.client.DownstreamClient;
+import com.selimhorri.app.dto.Expansion;
+import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.service.EnrichmentService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class EnrichmentServiceImpl implements EnrichmentService {
+
+	private final DownstreamClient downstreamClient;
+
+	@Override
+	public List<FavouriteDto> enrich(final List<FavouriteDto> favouriteDtos, final Set<Expansion> expansions) {
+		log.info("*** FavouriteDto List, service; enrich favourites with users and products *");
+		if (favouriteDtos.isEmpty() || expansions.isEmpty()) {
+			return favouriteDtos;
+		}
+
+		final Set<Integer> userIds = expansions.contains(Expansion.USER)
+				? favouriteDtos.stream()
+						.map(FavouriteDto::getUserId)
+						.collect(Collectors.toUnmodifiableSet())
+				: Set.of();
+		final Set<Integer> productIds = expansions.contains(Expansion.PRODUCT)
+				? favouriteDtos.stream()
+						.map(FavouriteDto::getProductId)
+						.collect(Collectors.toUnmodifiableSet())
+				: Set.of();
+
+		// Requested downstreams are resolved at the same time, each distinct id only once
+		final var usersFuture = userIds.isEmpty() ? null : this.downstreamClient.findUsersByIds(userIds);
+		final var productsFuture = productIds.isEmpty() ? null : this.downstreamClient.findProductsByIds(productIds);
+		final BulkResponse<UserDto> users = usersFuture == null
+				? null
+				: awaitUntilDeadline(usersFuture, "users", userIds);
+		final BulkResponse<ProductDto> products = productsFuture == null
+				? null
+				: awaitUntilDeadline(productsFuture, "products", productIds);
+
+		// A lookup that answered without an id means it does not exist; one that was not requested,
+		// did not answer in time or failed for that id leaves its side of the favourite unresolved
+		return favouriteDtos.stream()
+				.map(f -> {
+					final UserDto userDto = users == null ? null : users.getFound().get(f.getUserId());
+					final ProductDto productDto = products == null ? null : products.getFound().get(f.getProductId());
+
+					if (isMissing(users, f.getUserId(), userDto) || isMissing(products, f.getProductId(), productDto)) {
+						log.warn("User {} or product {} not found, excluding favourite", f.getUserId(),
+								f.getProductId());
+						return null;
+					}
+
+					f.setUserDto(userDto);
+					f.setProductDto(productDto);
+					return f;
+				})
+				.filter(Objects::nonNull)
+				.collect(Collectors.toUnmodifiableList());
+	}
+
+	@Override
+	public CompletableFuture<Optional<UserDto>> findUser(final Integer userId) {
+		return this.downstreamClient.findUserById(userId);
+	}
+
+	@Override
+	public CompletableFuture<Optional<ProductDto>> findProduct(final Integer productId) {
+		return this.downstreamClient.findProductById(productId);
+	}
+
+	@Override
+	public CompletableFuture<BulkResponse<UserDto>> findUsers(final Collection<Integer> userIds) {
+		return this.downstreamClient.findUsersByIds(userIds);
+	}
+
+	@Override
+	public CompletableFuture<BulkResponse<ProductDto>> findProducts(final Collection<Integer> productIds) {
+		return this.downstreamClient.findProductsByIds(productIds);
+	}
+
+	private static <T> boolean isMissing(final BulkResponse<T> response, final Integer id, final T dto) {
+		return response != null && dto == null && !response.isFailed(id);
+	}
+
+	private static <T> BulkResponse<T> awaitUntilDeadline(
+			final CompletableFuture<BulkResponse<T>> future, final String name, final Set<Integer> ids) {
+		try {
+			return Deadline.await(future);
+		}
+		catch (TimeoutException e) {
+			log.warn("Deadline expired before {} {} were resolved, leaving them unresolved", name, ids);
+		}
+		catch (ExecutionException e) {
+			log.warn("Error fetching {} {}, leaving them unresolved: {}", name, ids, e.getCause().getMessage());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,110 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.repository.projection.FavouriteCount;
+import com.selimhorri.app.service.FavouriteCountService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Like counts kept in memory and updated by every write path, so reads are a map lookup.
+ * LongAdder cells are striped, so a viral product does not serialise its writers on one counter.
+ * Writes racing with a rebuild can be off by a few until the next reconciliation; until the first
+ * one has finished, counts are read from the database. Only writes made by this instance are counted
+ * in between, so with several replicas each one lags the writes of the others until its next
+ * reconciliation (app.counts.reconcile-interval) and two replicas can answer different counts.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class FavouriteCountServiceImpl implements FavouriteCountService {
+	
+	private final FavouriteRepository favouriteRepository;
+	
+	private volatile ConcurrentMap<Integer, LongAdder> productCounts;
+	private volatile ConcurrentMap<Integer, LongAdder> userCounts;
+	
+	@Override
+	public long countByProductId(final Integer productId) {
+		final ConcurrentMap<Integer, LongAdder> counts = this.productCounts;
+		if (counts == null) {
+			return this.favouriteRepository.countByProductId(productId);
+		}
+		final LongAdder count = counts.get(productId);
+		return count == null ? 0L : Math.max(0L, count.sum());
+	}
+	
+	@Override
+	public long countByUserId(final Integer userId) {
+		final ConcurrentMap<Integer, LongAdder> counts = this.userCounts;
+		if (counts == null) {
+			return this.favouriteRepository.countByUserId(userId);
+		}
+		final LongAdder count = counts.get(userId);
+		return count == null ? 0L : Math.max(0L, count.sum());
+	}
+	
+	@Override
+	public void added(final Integer userId, final Integer productId) {
+		add(this.userCounts, userId, 1);
+		add(this.productCounts, productId, 1);
+	}
+	
+	@Override
+	public void removed(final Integer userId, final Integer productId, final int rows) {
+		add(this.userCounts, userId, -rows);
+		add(this.productCounts, productId, -rows);
+	}
+	
+	@Override
+	public void removedByUserId(final Integer userId, final Collection<Integer> productIds) {
+		add(this.userCounts, userId, -productIds.size());
+		productIds.forEach(productId -> add(this.productCounts, productId, -1));
+	}
+	
+	@Override
+	public void removedByProductId(final Integer productId, final Collection<Integer> userIds) {
+		add(this.productCounts, productId, -userIds.size());
+		userIds.forEach(userId -> add(this.userCounts, userId, -1));
+	}
+	
+	@Override
+	@Scheduled(fixedDelayString = "${app.counts.reconcile-interval:PT10M}")
+	public void reconcile() {
+		log.info("*** Void, service; rebuild favourite counts from favourites table *");
+		final long start = System.nanoTime();
+		final ConcurrentMap<Integer, LongAdder> products = load(this.favouriteRepository.countGroupByProductId());
+		final ConcurrentMap<Integer, LongAdder> users = load(this.favouriteRepository.countGroupByUserId());
+		this.productCounts = products;
+		this.userCounts = users;
+		log.info("Favourite counts rebuilt for {} products and {} users in {} ms",
+				products.size(), users.size(), (System.nanoTime() - start) / 1_000_000);
+	}
+	
+	private static ConcurrentMap<Integer, LongAdder> load(final List<FavouriteCount> rows) {
+		final ConcurrentMap<Integer, LongAdder> counts = new ConcurrentHashMap<>(Math.max(16, rows.size() * 4 / 3));
+		rows.forEach(row -> {
+			final LongAdder count = new LongAdder();
+			count.add(row.getCount());
+			counts.put(row.getId(), count);
+		});
+		return counts;
+	}
+	
+	private static void add(final ConcurrentMap<Integer, LongAdder> counts, final Integer key, final long delta) {
+		if (counts != null && delta != 0) {
+			counts.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+		}
+	}
+	
+}
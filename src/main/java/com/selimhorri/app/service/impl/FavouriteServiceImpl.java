@@ -1,119 +1,229 @@
 package com.selimhorri.app.service.impl;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import javax.transaction.Transactional;
+import javax.persistence.EntityManager;
 
-import org.springframework.http.ResponseEntity;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.selimhorri.app.client.BulkResponse;
+import com.selimhorri.app.client.Deadline;
 import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.Favourite;
 import com.selimhorri.app.domain.id.FavouriteId;
+import com.selimhorri.app.dto.Expansion;
 import com.selimhorri.app.dto.FavouriteDto;
 import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.FavouriteBatchResult;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.exception.wrapper.DuplicateEntityException;
 import com.selimhorri.app.exception.wrapper.FavouriteNotFoundException;
+import com.selimhorri.app.exception.wrapper.InvalidBatchException;
+import com.selimhorri.app.exception.wrapper.InvalidCursorException;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
 import com.selimhorri.app.exception.wrapper.UserNotFoundException;
+import com.selimhorri.app.helper.FavouriteCursorHelper;
+import com.selimhorri.app.helper.FavouriteETagHelper;
 import com.selimhorri.app.helper.FavouriteMappingHelper;
 import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.repository.projection.FavouriteVersion;
+import com.selimhorri.app.service.EnrichmentService;
+import com.selimhorri.app.service.FavouriteCountService;
 import com.selimhorri.app.service.FavouriteService;
+import com.selimhorri.app.service.FavouriteVersionService;
+import com.selimhorri.app.service.MembershipService;
+import com.selimhorri.app.service.TrendingService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Not transactional at class level: every repository call runs in its own short (read-only for
+ * queries) transaction, so no JDBC connection is held while the downstream lookups are awaited.
+ */
 @Service
-@Transactional
 @Slf4j
 @RequiredArgsConstructor
 public class FavouriteServiceImpl implements FavouriteService {
 
 	private final FavouriteRepository favouriteRepository;
-	private final RestTemplate restTemplate;
+	private final EnrichmentService enrichmentService;
+	private final EntityManager entityManager;
+	private final FavouriteCountService favouriteCountService;
+	private final TrendingService trendingService;
+	private final MembershipService membershipService;
+	private final FavouriteVersionService favouriteVersionService;
 
 	@Override
-	public List<FavouriteDto> findAll() {
+	public DtoCollectionResponse<FavouriteDto> findAll(final Set<Expansion> expansions) {
 		log.info("*** FavouriteDto List, service; fetch all favourites *");
-		return this.favouriteRepository.findAll()
+		// Rows are read straight into DTOs by the read-only transaction; enrichment runs without a connection
+		final List<FavouriteDto> favouriteDtos = this.favouriteRepository.findAllDtos()
 				.stream()
-				.map(FavouriteMappingHelper::map)
-				.map(f -> {
-					try {
-						UserDto userDto = this.restTemplate
-								.getForObject(
-										AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/" + f.getUserId(),
-										UserDto.class);
-						ProductDto productDto = this.restTemplate
-								.getForObject(
-										AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/"
-												+ f.getProductId(),
-										ProductDto.class);
-
-						if (userDto == null || productDto == null) {
-							log.warn("User {} or product {} not found, excluding favourite", f.getUserId(),
-									f.getProductId());
-							return null;
-						}
-
-						f.setUserDto(userDto);
-						f.setProductDto(productDto);
-						return f;
-					} catch (Exception e) {
-						log.warn("Error fetching details for favourite (user: {}, product: {}), excluding: {}",
-								f.getUserId(), f.getProductId(), e.getMessage());
-						return null;
-					}
-				})
-				.filter(Objects::nonNull) // Filtra los elementos nulos (los que fallaron)
 				.distinct()
 				.collect(Collectors.toUnmodifiableList());
+		final List<FavouriteDto> enriched = this.enrichmentService.enrich(favouriteDtos, expansions);
+		return DtoCollectionResponse.<FavouriteDto>builder()
+				.collection(enriched)
+				.partial(partial(enriched, expansions))
+				.build();
+	}
+
+	@Override
+	public DtoCollectionResponse<FavouriteDto> findAll(final int limit, final String after, final Set<Expansion> expansions) {
+		log.info("*** FavouriteDto List, service; fetch favourites page after cursor *");
+		final int pageSize = pageSize(limit);
+		// One extra row tells whether a next page exists without a COUNT query
+		final Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+		final List<Favourite> favourites;
+		if (after == null || after.isBlank()) {
+			favourites = this.favouriteRepository.findAllByOrderByUserIdAscProductIdAscLikeDateAsc(pageable);
+		}
+		else {
+			final FavouriteId cursor = FavouriteCursorHelper.decode(after);
+			favourites = this.favouriteRepository.findAllAfter(
+					cursor.getUserId(), cursor.getProductId(), cursor.getLikeDate(), pageable);
+		}
+
+		return this.toPage(favourites, pageSize, expansions);
+	}
+
+	@Override
+	public DtoCollectionResponse<FavouriteDto> findAllByUserId(
+			final Integer userId, final int limit, final String after, final Set<Expansion> expansions) {
+		log.info("*** FavouriteDto List, service; fetch favourites page of user, newest first *");
+		final int pageSize = pageSize(limit);
+		final Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+		final List<Favourite> favourites;
+		if (after == null || after.isBlank()) {
+			favourites = this.favouriteRepository.findAllByUserIdOrderByLikeDateDescProductIdDesc(userId, pageable);
+		}
+		else {
+			final FavouriteId cursor = FavouriteCursorHelper.decode(after);
+			if (!userId.equals(cursor.getUserId())) {
+				throw new InvalidCursorException(
+						String.format("Cursor: [%s] does not belong to user [%s]", after, userId));
+			}
+			favourites = this.favouriteRepository.findAllByUserIdBefore(
+					userId, cursor.getProductId(), cursor.getLikeDate(), pageable);
+		}
+
+		// Every row has the same user, so enrichment resolves it once plus the distinct products
+		return this.toPage(favourites, pageSize, expansions);
 	}
 
 	@Override
-	public FavouriteDto findById(final FavouriteId favouriteId) {
+	public DtoCollectionResponse<FavouriteDto> findAllByProductId(
+			final Integer productId, final int limit, final String after, final Set<Expansion> expansions) {
+		log.info("*** FavouriteDto List, service; fetch favourites page of product, newest first *");
+		final int pageSize = pageSize(limit);
+		final Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+		if (after == null || after.isBlank()) {
+			final DtoCollectionResponse<FavouriteDto> page = this.toPage(
+					this.favouriteRepository.findAllByProductIdOrderByLikeDateDescUserIdDesc(productId, pageable),
+					pageSize, expansions);
+			// Index-only count, sent with the first page only
+			page.setTotal(this.favouriteRepository.countByProductId(productId));
+			return page;
+		}
+
+		final FavouriteId cursor = FavouriteCursorHelper.decode(after);
+		if (!productId.equals(cursor.getProductId())) {
+			throw new InvalidCursorException(
+					String.format("Cursor: [%s] does not belong to product [%s]", after, productId));
+		}
+		return this.toPage(this.favouriteRepository.findAllByProductIdBefore(
+				productId, cursor.getUserId(), cursor.getLikeDate(), pageable), pageSize, expansions);
+	}
+
+	@Override
+	public String findVersion() {
+		log.info("*** String, service; fetch favourites version *");
+		return this.favouriteVersionService.current();
+	}
+
+	@Override
+	public Optional<String> findVersionById(final FavouriteId favouriteId) {
+		log.info("*** String, service; fetch favourite version by id *");
+		final FavouriteVersion version = this.favouriteRepository.findVersionByUserIdAndProductId(
+				favouriteId.getUserId(), favouriteId.getProductId());
+		return version.getCount() == 0 ? Optional.empty() : Optional.of(FavouriteETagHelper.version(version));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void streamAll(final Consumer<FavouriteDto> consumer) {
+		log.info("*** FavouriteDto Stream, service; stream all favourites *");
+		try (final Stream<Favourite> favourites = this.favouriteRepository.streamAll()) {
+			favourites.forEach(favourite -> {
+				consumer.accept(FavouriteMappingHelper.map(favourite));
+				// Keeps the persistence context (and the heap) flat for the whole scroll
+				this.entityManager.detach(favourite);
+			});
+		}
+	}
+
+	@Override
+	public FavouriteDto findById(final FavouriteId favouriteId, final Set<Expansion> expansions) {
 		log.info("*** FavouriteDto, service; fetch favourite by userId and productId *");
-		FavouriteDto favouriteDto = this.favouriteRepository
-				.findByUserIdAndProductId(favouriteId.getUserId(), favouriteId.getProductId())
-				.map(FavouriteMappingHelper::map)
+		final FavouriteDto favouriteDto = this.favouriteRepository
+				.findDtoByUserIdAndProductId(favouriteId.getUserId(), favouriteId.getProductId())
 				.orElseThrow(() -> new FavouriteNotFoundException(
 						String.format("Favourite with userId: [%s] and productId: [%s] not found in database!",
 								favouriteId.getUserId(),
 								favouriteId.getProductId())));
 
-		try {
-			UserDto userDto = this.restTemplate
-					.getForObject(
-							AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/" + favouriteDto.getUserId(),
-							UserDto.class);
+		// Requested downstreams are asked at once, so their latencies overlap instead of adding up
+		final var userFuture = expansions.contains(Expansion.USER)
+				? this.enrichmentService.findUser(favouriteDto.getUserId())
+				: null;
+		final var productFuture = expansions.contains(Expansion.PRODUCT)
+				? this.enrichmentService.findProduct(favouriteDto.getProductId())
+				: null;
+
+		// A downstream that fails or misses the deadline leaves its side unresolved, as enrich() does;
+		// only one that answers without the id makes the favourite unknown
+		if (userFuture != null) {
+			final Optional<UserDto> userDto = awaitUntilDeadline(userFuture, "user", favouriteDto.getUserId());
 			if (userDto == null) {
-				throw new FavouriteNotFoundException(
-						String.format("User with id: [%s] not found!", favouriteDto.getUserId()));
+				favouriteDto.setPartial(Boolean.TRUE);
+			}
+			else {
+				favouriteDto.setUserDto(userDto.orElseThrow(() -> new FavouriteNotFoundException(
+						String.format("User with id: [%s] not found!", favouriteDto.getUserId()))));
 			}
-			favouriteDto.setUserDto(userDto);
-		} catch (Exception e) {
-			throw new FavouriteNotFoundException(
-					String.format("Error fetching user with id: [%s]", favouriteDto.getUserId()), e);
 		}
-
-		try {
-			ProductDto productDto = this.restTemplate
-					.getForObject(
-							AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/"
-									+ favouriteDto.getProductId(),
-							ProductDto.class);
+		if (productFuture != null) {
+			final Optional<ProductDto> productDto = awaitUntilDeadline(productFuture, "product", favouriteDto.getProductId());
 			if (productDto == null) {
-				throw new FavouriteNotFoundException(
-						String.format("Product with id: [%s] not found!", favouriteDto.getProductId()));
+				favouriteDto.setPartial(Boolean.TRUE);
+			}
+			else {
+				favouriteDto.setProductDto(productDto.orElseThrow(() -> new FavouriteNotFoundException(
+						String.format("Product with id: [%s] not found!", favouriteDto.getProductId()))));
 			}
-			favouriteDto.setProductDto(productDto);
-		} catch (Exception e) {
-			throw new FavouriteNotFoundException(
-					String.format("Error fetching product with id: [%s]", favouriteDto.getProductId()), e);
 		}
 
 		return favouriteDto;
@@ -121,65 +231,323 @@ public class FavouriteServiceImpl implements FavouriteService {
 
 	@Override
 	public FavouriteDto save(final FavouriteDto favouriteDto) {
+		log.info("*** FavouriteDto, service; save favourite *");
+		final var userFuture = this.enrichmentService.findUser(favouriteDto.getUserId());
+		final var productFuture = this.enrichmentService.findProduct(favouriteDto.getProductId());
+
+		// Runs on this thread while both remote validations are in flight; always the database, as the
+		// membership index cannot see writes made by other instances
+		final boolean favouriteExists = this.favouriteRepository.existsByUserIdAndProductId(
+				favouriteDto.getUserId(),
+				favouriteDto.getProductId());
+
 		// Verificar usuario
-		try {
-			ResponseEntity<UserDto> response = this.restTemplate.getForEntity(
-					AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/" + favouriteDto.getUserId(),
-					UserDto.class);
+		await(userFuture, e -> new UserNotFoundException(
+						String.format("Error verifying user with id [%s]", favouriteDto.getUserId()), e))
+				.orElseThrow(() -> new UserNotFoundException(
+						String.format("User with id [%s] not found", favouriteDto.getUserId())));
 
-			if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
-				throw new UserNotFoundException(
-						String.format("User with id [%s] not found", favouriteDto.getUserId()));
-			}
-		} catch (RestClientException e) {
-			throw new UserNotFoundException(
-					String.format("Error verifying user with id [%s]", favouriteDto.getUserId()), e);
+		// Verificar producto
+		await(productFuture, e -> new ProductNotFoundException(
+						String.format("Error verifying product with id [%s]", favouriteDto.getProductId()), e))
+				.orElseThrow(() -> new ProductNotFoundException(
+						String.format("Product with id [%s] not found", favouriteDto.getProductId())));
+
+		if (favouriteExists) {
+			throw new DuplicateEntityException(
+					String.format("Favourite already exists for user [%s] and product [%s]",
+							favouriteDto.getUserId(),
+							favouriteDto.getProductId()));
 		}
 
-		// Verificar producto
-		try {
-			ResponseEntity<ProductDto> response = this.restTemplate.getForEntity(
-					AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/" + favouriteDto.getProductId(),
-					ProductDto.class);
+		final Favourite saved = this.favouriteRepository.save(FavouriteMappingHelper.map(favouriteDto));
+		this.favouriteCountService.added(saved.getUserId(), saved.getProductId());
+		this.trendingService.record(saved.getProductId(), saved.getLikeDate());
+		this.membershipService.added(saved.getUserId(), saved.getProductId());
+		this.favouriteVersionService.changed();
+		return FavouriteMappingHelper.map(saved);
+	}
 
-			if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
-				throw new ProductNotFoundException(
-						String.format("Product with id [%s] not found", favouriteDto.getProductId()));
-			}
+	@Override
+	public List<FavouriteBatchResult> saveAll(final List<FavouriteDto> favouriteDtos) {
+		log.info("*** FavouriteBatchResult List, service; save favourites in batch *");
+		if (favouriteDtos.size() > AppConstant.MAX_BATCH_SIZE) {
+			throw new InvalidBatchException(
+					String.format("Batch of [%s] favourites exceeds the limit of [%s]",
+							favouriteDtos.size(),
+							AppConstant.MAX_BATCH_SIZE));
+		}
 
-			boolean favouriteExists = this.favouriteRepository.existsByUserIdAndProductId(
-					favouriteDto.getUserId(),
-					favouriteDto.getProductId());
+		final List<FavouriteDto> candidates = favouriteDtos.stream()
+				.filter(f -> f != null && f.getUserId() != null && f.getProductId() != null)
+				.collect(Collectors.toUnmodifiableList());
+		if (candidates.isEmpty()) {
+			return this.classify(favouriteDtos,
+					BulkResponse.of(Map.of(), Set.of()),
+					BulkResponse.of(Map.of(), Set.of()),
+					Set.of());
+		}
+
+		final Set<Integer> userIds = candidates.stream()
+				.map(FavouriteDto::getUserId)
+				.collect(Collectors.toUnmodifiableSet());
+		final Set<Integer> productIds = candidates.stream()
+				.map(FavouriteDto::getProductId)
+				.collect(Collectors.toUnmodifiableSet());
+
+		// Each distinct user and product is verified once, both downstreams at the same time
+		final var usersFuture = this.enrichmentService.findUsers(userIds);
+		final var productsFuture = this.enrichmentService.findProducts(productIds);
+
+		// One set-based query while both remote validations are in flight
+		final Set<FavouriteId> existing = this.favouriteRepository.findIdsByUserIdInAndProductIdIn(userIds, productIds)
+				.stream()
+				.map(id -> new FavouriteId(id.getUserId(), id.getProductId(), null))
+				.collect(Collectors.toUnmodifiableSet());
+
+		// A lookup that failed as a whole, or did not finish within the deadline, leaves all its ids
+		// unavailable
+		final BulkResponse<UserDto> users = Optional.ofNullable(awaitUntilDeadline(usersFuture, "users", userIds))
+				.orElseGet(() -> BulkResponse.failed(userIds));
+		final BulkResponse<ProductDto> products = Optional.ofNullable(awaitUntilDeadline(productsFuture, "products", productIds))
+				.orElseGet(() -> BulkResponse.failed(productIds));
+
+		return this.classify(favouriteDtos, users, products, existing);
+	}
 
-			if (favouriteExists) {
-				throw new DuplicateEntityException(
-						String.format("Favourite already exists for user [%s] and product [%s]",
+	private List<FavouriteBatchResult> classify(
+			final List<FavouriteDto> favouriteDtos,
+			final BulkResponse<UserDto> users,
+			final BulkResponse<ProductDto> products,
+			final Set<FavouriteId> existing) {
+
+		final Set<FavouriteId> taken = new HashSet<>(existing);
+		final List<Favourite> favourites = new ArrayList<>();
+		final List<FavouriteBatchResult> results = new ArrayList<>(favouriteDtos.size());
+
+		for (int i = 0; i < favouriteDtos.size(); i++) {
+			final FavouriteDto favouriteDto = favouriteDtos.get(i);
+			final var result = FavouriteBatchResult.builder().index(i);
+			if (favouriteDto == null || favouriteDto.getUserId() == null || favouriteDto.getProductId() == null) {
+				results.add(result
+						.status(FavouriteBatchResult.Status.INVALID)
+						.msg("userId and productId must not be NULL")
+						.build());
+				continue;
+			}
+
+			result.userId(favouriteDto.getUserId()).productId(favouriteDto.getProductId());
+			// A failed lookup says nothing about the id, the client may retry that entry
+			if (users.isFailed(favouriteDto.getUserId())) {
+				result.status(FavouriteBatchResult.Status.USER_UNAVAILABLE)
+						.msg(String.format("User with id [%s] could not be verified", favouriteDto.getUserId()));
+			}
+			else if (!users.getFound().containsKey(favouriteDto.getUserId())) {
+				result.status(FavouriteBatchResult.Status.USER_NOT_FOUND)
+						.msg(String.format("User with id [%s] not found", favouriteDto.getUserId()));
+			}
+			else if (products.isFailed(favouriteDto.getProductId())) {
+				result.status(FavouriteBatchResult.Status.PRODUCT_UNAVAILABLE)
+						.msg(String.format("Product with id [%s] could not be verified", favouriteDto.getProductId()));
+			}
+			else if (!products.getFound().containsKey(favouriteDto.getProductId())) {
+				result.status(FavouriteBatchResult.Status.PRODUCT_NOT_FOUND)
+						.msg(String.format("Product with id [%s] not found", favouriteDto.getProductId()));
+			}
+			else if (!taken.add(new FavouriteId(favouriteDto.getUserId(), favouriteDto.getProductId(), null))) {
+				result.status(FavouriteBatchResult.Status.DUPLICATE)
+						.msg(String.format("Favourite already exists for user [%s] and product [%s]",
 								favouriteDto.getUserId(),
 								favouriteDto.getProductId()));
 			}
+			else {
+				final Favourite favourite = FavouriteMappingHelper.map(favouriteDto);
+				favourites.add(favourite);
+				result.status(FavouriteBatchResult.Status.CREATED)
+						.favourite(FavouriteMappingHelper.map(favourite));
+			}
+			results.add(result.build());
+		}
 
-		} catch (RestClientException e) {
-			throw new ProductNotFoundException(
-					String.format("Error verifying product with id [%s]", favouriteDto.getProductId()), e);
+		if (!favourites.isEmpty()) {
+			this.favouriteRepository.persistAll(favourites);
+			favourites.forEach(f -> {
+				this.favouriteCountService.added(f.getUserId(), f.getProductId());
+				this.trendingService.record(f.getProductId(), f.getLikeDate());
+				this.membershipService.added(f.getUserId(), f.getProductId());
+			});
+			this.favouriteVersionService.changed();
 		}
-	
-		return FavouriteMappingHelper.map(
-				this.favouriteRepository.save(FavouriteMappingHelper.map(favouriteDto)));
+		return Collections.unmodifiableList(results);
 	}
 
 	@Override
-	@Transactional
-	public void deleteById(FavouriteId favouriteId) {
-		// Verificar si existe
-		if (!favouriteRepository.existsByUserIdAndProductId(favouriteId.getUserId(), favouriteId.getProductId())) {
+	public void deleteById(final FavouriteId favouriteId) {
+		log.info("*** Void, service; delete favourite by id *");
+		// One statement; the affected-row count replaces the exists pre-check
+		final int deleted = this.favouriteRepository.deleteByUserIdAndProductId(
+				favouriteId.getUserId(), favouriteId.getProductId());
+		if (deleted == 0) {
 			throw new FavouriteNotFoundException(
 					String.format("Favourite not found with userId: %s and productId: %s",
 							favouriteId.getUserId(),
 							favouriteId.getProductId()));
 		}
+		this.favouriteCountService.removed(favouriteId.getUserId(), favouriteId.getProductId(), deleted);
+		this.membershipService.removed(favouriteId.getUserId(), favouriteId.getProductId());
+		this.favouriteVersionService.changed();
+	}
+
+	@Override
+	public int deleteAllByUserId(final Integer userId) {
+		log.info("*** Integer, service; delete all favourites of user *");
+		// The product ids are read first (index only) so their counters can follow the delete
+		final List<Integer> productIds = this.favouriteRepository.findProductIdsByUserId(userId);
+		final int deleted = this.favouriteRepository.deleteAllByUserId(userId);
+		this.favouriteCountService.removedByUserId(userId, productIds);
+		this.membershipService.removedByUserId(userId);
+		this.favouriteVersionService.changed();
+		return deleted;
+	}
+
+	@Override
+	public int deleteAllByProductId(final Integer productId) {
+		log.info("*** Integer, service; delete all favourites of product *");
+		final List<Integer> userIds = this.favouriteRepository.findUserIdsByProductId(productId);
+		final int deleted = this.favouriteRepository.deleteAllByProductId(productId);
+		this.favouriteCountService.removedByProductId(productId, userIds);
+		this.membershipService.removedByProductId(productId, userIds);
+		this.favouriteVersionService.changed();
+		return deleted;
+	}
+
+	@Override
+	public int deleteAllById(final List<FavouriteId> favouriteIds) {
+		log.info("*** Integer, service; delete favourites in batch *");
+		if (favouriteIds.size() > AppConstant.MAX_BATCH_SIZE) {
+			throw new InvalidBatchException(
+					String.format("Batch of [%s] favourites exceeds the limit of [%s]",
+							favouriteIds.size(),
+							AppConstant.MAX_BATCH_SIZE));
+		}
+		if (favouriteIds.stream().anyMatch(id -> id == null || id.getUserId() == null || id.getProductId() == null)) {
+			throw new InvalidBatchException("Every favourite id must have a userId and a productId");
+		}
+
+		final List<FavouriteId> distinctIds = favouriteIds.stream()
+				.map(id -> new FavouriteId(id.getUserId(), id.getProductId(), null))
+				.distinct()
+				.collect(Collectors.toUnmodifiableList());
+		if (distinctIds.isEmpty()) {
+			return 0;
+		}
+
+		final List<FavouriteId> deleted = this.favouriteRepository.deleteAllByUserIdAndProductId(distinctIds);
+		deleted.forEach(id -> {
+			this.favouriteCountService.removed(id.getUserId(), id.getProductId(), 1);
+			this.membershipService.removed(id.getUserId(), id.getProductId());
+		});
+		this.favouriteVersionService.changed();
+		return deleted.size();
+	}
+
+	@Override
+	public List<Boolean> containsAll(final Integer userId, final List<Integer> productIds) {
+		log.info("*** Boolean List, service; check favourited products of user *");
+		if (productIds.size() > AppConstant.MAX_CONTAINS_SIZE) {
+			throw new InvalidBatchException(
+					String.format("Batch of [%s] products exceeds the limit of [%s]",
+							productIds.size(),
+							AppConstant.MAX_CONTAINS_SIZE));
+		}
+
+		final Set<Integer> requested = productIds.stream()
+				.filter(Objects::nonNull)
+				.collect(Collectors.toUnmodifiableSet());
+		if (requested.isEmpty()) {
+			return productIds.stream().map(id -> Boolean.FALSE).collect(Collectors.toUnmodifiableList());
+		}
+
+		// Membership index when loaded, otherwise one IN query; never any enrichment
+		final Set<Integer> liked = this.membershipService.isLoaded()
+				? requested.stream()
+						.filter(productId -> this.membershipService.contains(userId, productId))
+						.collect(Collectors.toUnmodifiableSet())
+				: Set.copyOf(this.favouriteRepository.findProductIdsByUserIdAndProductIdIn(userId, requested));
+
+		return productIds.stream()
+				.map(productId -> productId != null && liked.contains(productId))
+				.collect(Collectors.toUnmodifiableList());
+	}
+
+	@Override
+	public long countByProductId(final Integer productId) {
+		return this.favouriteCountService.countByProductId(productId);
+	}
+
+	@Override
+	public long countByUserId(final Integer userId) {
+		return this.favouriteCountService.countByUserId(userId);
+	}
+
+	// Null rather than false so complete responses keep their shape
+	private static Boolean partial(final List<FavouriteDto> favouriteDtos, final Set<Expansion> expansions) {
+		return favouriteDtos.stream()
+				.anyMatch(f -> (expansions.contains(Expansion.USER) && f.getUserDto() == null)
+						|| (expansions.contains(Expansion.PRODUCT) && f.getProductDto() == null)) ? Boolean.TRUE : null;
+	}
+
+	private static int pageSize(final int limit) {
+		return Math.max(1, Math.min(limit, AppConstant.MAX_PAGE_LIMIT));
+	}
+
+	private DtoCollectionResponse<FavouriteDto> toPage(
+			final List<Favourite> favourites, final int pageSize, final Set<Expansion> expansions) {
+		final boolean hasNext = favourites.size() > pageSize;
+		final List<Favourite> page = hasNext ? favourites.subList(0, pageSize) : favourites;
 
-		// Si existe, eliminar
-		favouriteRepository.deleteByUserIdAndProductId(favouriteId.getUserId(), favouriteId.getProductId());
+		final List<FavouriteDto> enriched = this.enrichmentService.enrich(page.stream()
+				.map(FavouriteMappingHelper::map)
+				.collect(Collectors.toUnmodifiableList()), expansions);
+		return DtoCollectionResponse.<FavouriteDto>builder()
+				.collection(enriched)
+				.partial(partial(enriched, expansions))
+				.next(hasNext ? FavouriteCursorHelper.encode(page.get(page.size() - 1)) : null)
+				.build();
+	}
+
+	private static <T> T awaitUntilDeadline(final CompletableFuture<T> future, final String name, final Object id) {
+		try {
+			return Deadline.await(future);
+		}
+		catch (TimeoutException e) {
+			log.warn("Deadline expired before {} [{}] was resolved, leaving it unresolved", name, id);
+		}
+		catch (ExecutionException | CancellationException e) {
+			log.warn("Error fetching {} [{}], leaving it unresolved: {}", name, id, e.toString());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return null;
+	}
+
+	// Never past the request deadline, even if the future itself is never completed
+	private static <T> T await(final CompletableFuture<T> future,
+			final Function<Throwable, ? extends RuntimeException> onError) {
+		try {
+			return Deadline.await(future);
+		}
+		catch (ExecutionException e) {
+			throw onError.apply(e.getCause() != null ? e.getCause() : e);
+		}
+		catch (TimeoutException | CancellationException e) {
+			throw onError.apply(e);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw onError.apply(e);
+		}
 	}
 
 }
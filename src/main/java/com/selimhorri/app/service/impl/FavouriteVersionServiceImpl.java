@@ -0,0 +1,78 @@
+package com.selimhorri.app.service.impl;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.selimhorri.app.helper.FavouriteETagHelper;
+import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.service.FavouriteVersionService;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Version of the whole favourites table, behind the ETag of the collection. The aggregate scans the
+ * table, so it is computed once and reused until a write made by this instance (counted again when
+ * its transaction completes, so a version read before the commit is not kept) or until it is older than
+ * app.etag.version-max-age, the longest a write made by another instance goes unnoticed.
+ */
+@Service
+@Slf4j
+public class FavouriteVersionServiceImpl implements FavouriteVersionService {
+	
+	private final FavouriteRepository favouriteRepository;
+	private final long maxAgeNanos;
+	private final AtomicLong writes = new AtomicLong();
+	private volatile Snapshot snapshot;
+	
+	public FavouriteVersionServiceImpl(
+			final FavouriteRepository favouriteRepository,
+			@Value("${app.etag.version-max-age:5s}") final Duration maxAge) {
+		this.favouriteRepository = favouriteRepository;
+		this.maxAgeNanos = maxAge.toNanos();
+	}
+	
+	@Override
+	public String current() {
+		final long writes = this.writes.get();
+		final Snapshot cached = this.snapshot;
+		if (cached != null && cached.writes == writes && System.nanoTime() - cached.takenAt < this.maxAgeNanos) {
+			return cached.version;
+		}
+		log.info("*** String, service; compute favourites version from favourites table *");
+		final long takenAt = System.nanoTime();
+		final String version = FavouriteETagHelper.version(this.favouriteRepository.findVersion());
+		this.snapshot = new Snapshot(version, writes, takenAt);
+		return version;
+	}
+	
+	@Override
+	public void changed() {
+		this.writes.incrementAndGet();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				
+				@Override
+				public void afterCompletion(final int status) {
+					FavouriteVersionServiceImpl.this.writes.incrementAndGet();
+				}
+				
+			});
+		}
+	}
+	
+	@AllArgsConstructor
+	private static final class Snapshot {
+		
+		private final String version;
+		private final long writes;
+		private final long takenAt;
+		
+	}
+	
+}
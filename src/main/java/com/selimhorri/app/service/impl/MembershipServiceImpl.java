@@ -0,0 +1,180 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.selimhorri.app.domain.id.FavouriteId;
+import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.service.MembershipService;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * userId -> Roaring bitmap of liked productIds, rebuilt by streaming the table every
+ * app.membership.rebuild-interval and kept current in between by the write paths of this instance.
+ * Writes on other instances are only seen after the next rebuild, so the index answers reads and
+ * never decides whether a write is a duplicate. Until the first load has finished (or when disabled)
+ * every check goes to the database. Each bitmap is guarded by its own monitor, as RoaringBitmap is
+ * not thread-safe.
+ */
+@Service
+@Slf4j
+public class MembershipServiceImpl implements MembershipService {
+	
+	private final FavouriteRepository favouriteRepository;
+	private final boolean enabled;
+	private final Timer loadTimer;
+	private volatile ConcurrentMap<Integer, RoaringBitmap> index = new ConcurrentHashMap<>();
+	private volatile ConcurrentMap<Integer, RoaringBitmap> building;
+	private volatile boolean loaded;
+	
+	public MembershipServiceImpl(
+			final FavouriteRepository favouriteRepository,
+			@Value("${app.membership.enabled:false}") final boolean enabled,
+			final MeterRegistry meterRegistry) {
+		this.favouriteRepository = favouriteRepository;
+		this.enabled = enabled;
+		this.loadTimer = Timer.builder("favourites.membership.load")
+				.description("Time to build the membership index from the favourites table")
+				.register(meterRegistry);
+		Gauge.builder("favourites.membership.memory", this, MembershipServiceImpl::sizeInBytes)
+				.description("Serialized size of the membership bitmaps")
+				.baseUnit("bytes")
+				.register(meterRegistry);
+		Gauge.builder("favourites.membership.users", this, s -> s.index.size())
+				.description("Users present in the membership index")
+				.register(meterRegistry);
+	}
+	
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(
+			fixedDelayString = "${app.membership.rebuild-interval:PT10M}",
+			initialDelayString = "${app.membership.rebuild-interval:PT10M}")
+	@Transactional(readOnly = true)
+	public synchronized void load() {
+		if (!this.enabled) {
+			return;
+		}
+		log.info("*** Void, service; load membership index from favourites table *");
+		final long start = System.nanoTime();
+		final ConcurrentMap<Integer, RoaringBitmap> rebuilt = new ConcurrentHashMap<>();
+		// Local writes made while the table is streamed are applied to both maps
+		this.building = rebuilt;
+		long rows = 0;
+		try (final Stream<FavouriteId> favourites = this.favouriteRepository.streamAllIds()) {
+			for (final FavouriteId favourite : (Iterable<FavouriteId>) favourites::iterator) {
+				add(rebuilt, favourite.getUserId(), favourite.getProductId());
+				rows++;
+			}
+		}
+		finally {
+			this.building = null;
+		}
+		rebuilt.values().forEach(bitmap -> {
+			synchronized (bitmap) {
+				bitmap.runOptimize();
+			}
+		});
+		this.index = rebuilt;
+		this.loaded = true;
+		final long elapsed = System.nanoTime() - start;
+		this.loadTimer.record(elapsed, TimeUnit.NANOSECONDS);
+		log.info("Membership index loaded with {} rows for {} users in {} ms",
+				rows, rebuilt.size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+	}
+	
+	@Override
+	public boolean isLoaded() {
+		return this.loaded;
+	}
+	
+	@Override
+	public boolean contains(final Integer userId, final Integer productId) {
+		if (!this.loaded) {
+			return this.favouriteRepository.existsByUserIdAndProductId(userId, productId);
+		}
+		final RoaringBitmap bitmap = this.index.get(userId);
+		if (bitmap == null) {
+			return false;
+		}
+		synchronized (bitmap) {
+			return bitmap.contains(productId);
+		}
+	}
+	
+	@Override
+	public void added(final Integer userId, final Integer productId) {
+		if (!this.enabled) {
+			return;
+		}
+		add(this.index, userId, productId);
+		final ConcurrentMap<Integer, RoaringBitmap> rebuilt = this.building;
+		if (rebuilt != null) {
+			add(rebuilt, userId, productId);
+		}
+	}
+	
+	@Override
+	public void removed(final Integer userId, final Integer productId) {
+		remove(this.index, userId, productId);
+		final ConcurrentMap<Integer, RoaringBitmap> rebuilt = this.building;
+		if (rebuilt != null) {
+			remove(rebuilt, userId, productId);
+		}
+	}
+	
+	@Override
+	public void removedByUserId(final Integer userId) {
+		this.index.remove(userId);
+		final ConcurrentMap<Integer, RoaringBitmap> rebuilt = this.building;
+		if (rebuilt != null) {
+			rebuilt.remove(userId);
+		}
+	}
+	
+	@Override
+	public void removedByProductId(final Integer productId, final Collection<Integer> userIds) {
+		userIds.forEach(userId -> this.removed(userId, productId));
+	}
+	
+	private static void add(final ConcurrentMap<Integer, RoaringBitmap> index, final Integer userId, final Integer productId) {
+		final RoaringBitmap bitmap = index.computeIfAbsent(userId, k -> new RoaringBitmap());
+		synchronized (bitmap) {
+			bitmap.add(productId);
+		}
+	}
+	
+	private static void remove(final ConcurrentMap<Integer, RoaringBitmap> index, final Integer userId, final Integer productId) {
+		final RoaringBitmap bitmap = index.get(userId);
+		if (bitmap != null) {
+			synchronized (bitmap) {
+				bitmap.remove(productId);
+			}
+		}
+	}
+	
+	private double sizeInBytes() {
+		long bytes = 0;
+		for (final RoaringBitmap bitmap : this.index.values()) {
+			synchronized (bitmap) {
+				bytes += bitmap.getLongSizeInBytes();
+			}
+		}
+		return bytes;
+	}
+	
+}
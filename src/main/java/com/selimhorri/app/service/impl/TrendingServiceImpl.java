@@ -0,0 +1,199 @@
+package com.selimhorri.app.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.selimhorri.app.client.Deadline;
+import com.selimhorri.app.config.trending.TrendingProperties;
+import com.selimhorri.app.domain.id.FavouriteId;
+import com.selimhorri.app.dto.Expansion;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.TrendingProductDto;
+import com.selimhorri.app.exception.wrapper.InvalidWindowException;
+import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.service.EnrichmentService;
+import com.selimhorri.app.service.TrendingService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sliding-window heavy hitters: a ring of time buckets, each holding a Space-Saving summary of at
+ * most 2 * capacity products. A window query merges the buckets it covers, so memory depends on
+ * the configuration only and recording a like is a hash update on the current bucket.
+ */
+@Service
+@Slf4j
+public class TrendingServiceImpl implements TrendingService {
+
+	private final FavouriteRepository favouriteRepository;
+	private final EnrichmentService enrichmentService;
+	private final long bucketMillis;
+	private final int capacity;
+	private final Bucket[] buckets;
+
+	public TrendingServiceImpl(
+			final FavouriteRepository favouriteRepository,
+			final EnrichmentService enrichmentService,
+			final TrendingProperties trendingProperties) {
+		this.favouriteRepository = favouriteRepository;
+		this.enrichmentService = enrichmentService;
+		this.bucketMillis = trendingProperties.getBucketWidth().toMillis();
+		this.capacity = trendingProperties.getCapacity();
+		this.buckets = new Bucket[(int) Math.ceil((double) trendingProperties.getRetention().toMillis() / this.bucketMillis)];
+		for (int i = 0; i < this.buckets.length; i++) {
+			this.buckets[i] = new Bucket(this.capacity);
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional(readOnly = true)
+	public void seed() {
+		log.info("*** Void, service; seed trending products from recent likes *");
+		final long start = System.nanoTime();
+		final LocalDateTime since = LocalDateTime.now().minus(Duration.ofMillis(this.bucketMillis * this.buckets.length));
+		long seeded = 0;
+		try (final Stream<FavouriteId> likes = this.favouriteRepository.streamIdsLikedSince(since)) {
+			for (final FavouriteId like : (Iterable<FavouriteId>) likes::iterator) {
+				this.record(like.getProductId(), like.getLikeDate());
+				seeded++;
+			}
+		}
+		log.info("Trending products seeded from {} likes in {} ms", seeded, (System.nanoTime() - start) / 1_000_000);
+	}
+
+	@Override
+	public void record(final Integer productId, final LocalDateTime likeDate) {
+		final long epoch = this.epochOf(likeDate);
+		final long currentEpoch = System.currentTimeMillis() / this.bucketMillis;
+		if (epoch > currentEpoch || epoch <= currentEpoch - this.buckets.length) {
+			return;
+		}
+		this.buckets[(int) Math.floorMod(epoch, (long) this.buckets.length)].offer(epoch, productId);
+	}
+
+	@Override
+	public List<TrendingProductDto> findTrending(final Duration window, final int k, final Set<Expansion> expansions) {
+		log.info("*** TrendingProductDto List, service; fetch trending products *");
+		final int windowBuckets = (int) Math.ceil((double) window.toMillis() / this.bucketMillis);
+		if (windowBuckets < 1 || windowBuckets > this.buckets.length) {
+			throw new InvalidWindowException(String.format("Window [%s] must be between [%s] and [%s]",
+					window, Duration.ofMillis(this.bucketMillis), Duration.ofMillis(this.bucketMillis * this.buckets.length)));
+		}
+		if (k < 1 || k > this.capacity) {
+			throw new InvalidWindowException(String.format("k [%s] must be between 1 and [%s]", k, this.capacity));
+		}
+
+		final long currentEpoch = System.currentTimeMillis() / this.bucketMillis;
+		final Map<Integer, Long> totals = new HashMap<>();
+		for (final Bucket bucket : this.buckets) {
+			bucket.mergeInto(currentEpoch - windowBuckets + 1, currentEpoch, totals);
+		}
+
+		final List<Map.Entry<Integer, Long>> top = totals.entrySet().stream()
+				.sorted(Map.Entry.<Integer, Long>comparingByValue(Comparator.reverseOrder()))
+				.limit(k)
+				.collect(Collectors.toUnmodifiableList());
+		if (top.isEmpty()) {
+			return List.of();
+		}
+
+		final Set<Integer> productIds = top.stream()
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toUnmodifiableSet());
+		final Map<Integer, ProductDto> products = expansions.contains(Expansion.PRODUCT)
+				? this.findProducts(productIds)
+				: Map.of();
+
+		return top.stream()
+				.map(e -> TrendingProductDto.builder()
+						.productId(e.getKey())
+						.count(e.getValue())
+						.productDto(products.get(e.getKey()))
+						.build())
+				.collect(Collectors.toUnmodifiableList());
+	}
+
+	private Map<Integer, ProductDto> findProducts(final Set<Integer> productIds) {
+		try {
+			return Deadline.await(this.enrichmentService.findProducts(productIds)).getFound();
+		}
+		catch (TimeoutException e) {
+			log.warn("Deadline expired before trending products {} were resolved, returning ids only", productIds);
+		}
+		catch (ExecutionException e) {
+			log.warn("Error fetching trending products {}, returning ids only: {}", productIds, e.getCause().getMessage());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return Map.of();
+	}
+
+	private long epochOf(final LocalDateTime likeDate) {
+		return likeDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() / this.bucketMillis;
+	}
+
+	private static final class Bucket {
+
+		private final int capacity;
+		private long epoch = Long.MIN_VALUE;
+		private Map<Integer, Long> counts = new HashMap<>();
+		// Highest count evicted so far; new products start from it, as in Space-Saving
+		private long floor;
+
+		private Bucket(final int capacity) {
+			this.capacity = capacity;
+		}
+
+		private synchronized void offer(final long epoch, final Integer productId) {
+			if (epoch != this.epoch) {
+				// A newer period already reuses this slot
+				if (epoch < this.epoch) {
+					return;
+				}
+				this.epoch = epoch;
+				this.counts = new HashMap<>();
+				this.floor = 0;
+			}
+			final Long count = this.counts.get(productId);
+			this.counts.put(productId, (count == null ? this.floor : count) + 1);
+			// Compacting at twice the capacity keeps the amortised cost per like constant
+			if (this.counts.size() > 2 * this.capacity) {
+				this.compact();
+			}
+		}
+
+		private void compact() {
+			final List<Map.Entry<Integer, Long>> entries = new ArrayList<>(this.counts.entrySet());
+			entries.sort(Map.Entry.<Integer, Long>comparingByValue(Comparator.reverseOrder()));
+			final Map<Integer, Long> kept = new HashMap<>();
+			entries.subList(0, this.capacity).forEach(e -> kept.put(e.getKey(), e.getValue()));
+			this.floor = Math.max(this.floor, entries.get(this.capacity).getValue());
+			this.counts = kept;
+		}
+
+		private synchronized void mergeInto(final long fromEpoch, final long toEpoch, final Map<Integer, Long> totals) {
+			if (this.epoch >= fromEpoch && this.epoch <= toEpoch) {
+				this.counts.forEach((productId, count) -> totals.merge(productId, count, Long::sum));
+			}
+		}
+
+	}
+
+}
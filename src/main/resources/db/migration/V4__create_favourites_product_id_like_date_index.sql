@@ -0,0 +1 @@
+CREATE INDEX idx_favourites_product_id_like_date ON favourites (product_id, like_date);
@@ -1,15 +1,28 @@
 package com.selimhorri.app.integration;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
@@ -18,20 +31,32 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.id.FavouriteId;
+import com.selimhorri.app.dto.Expansion;
 import com.selimhorri.app.dto.FavouriteDto;
 import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.FavouriteBatchResult;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.exception.wrapper.DuplicateEntityException;
 import com.selimhorri.app.exception.wrapper.FavouriteNotFoundException;
+import com.selimhorri.app.exception.wrapper.InvalidBatchException;
+import com.selimhorri.app.exception.wrapper.InvalidCursorException;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
 import com.selimhorri.app.exception.wrapper.UserNotFoundException;
+import com.selimhorri.app.dto.TrendingProductDto;
 import com.selimhorri.app.service.FavouriteService;
+import com.selimhorri.app.service.TrendingService;
 
 @Tag("integration")
 @SpringBootTest
@@ -44,9 +69,15 @@ class FavouriteResourceIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private SmileMapper smileMapper;
+
     @MockBean
     private FavouriteService favouriteService;
 
+    @MockBean
+    private TrendingService trendingService;
+
     private FavouriteDto favouriteDto;
     @SuppressWarnings("unused")
     private List<FavouriteDto> favouriteDtos;
@@ -104,14 +135,252 @@ class FavouriteResourceIntegrationTest {
                 .productDto(productDto)
                 .build();
 
-        when(favouriteService.findAll())
-                .thenReturn(List.of(completeFavouriteDto));
+        when(favouriteService.findAll(Expansion.ALL))
+                .thenReturn(new DtoCollectionResponse<>(List.of(completeFavouriteDto)));
 
         mockMvc.perform(get("/api/favourites"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.collection[0].userId").value(1));
     }
 
+    @Test
+    void testFindAllNotModified() throws Exception {
+        when(favouriteService.findVersion()).thenReturn("1-2-3");
+        when(favouriteService.findAll(Expansion.ALL))
+                .thenReturn(new DtoCollectionResponse<>(List.of(favouriteDto)));
+
+        String etag = mockMvc.perform(get("/api/favourites"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/favourites").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        // Another representation of the same rows is not the one the client holds
+        when(favouriteService.findAll(Expansion.NONE))
+                .thenReturn(new DtoCollectionResponse<>(List.of(favouriteDto)));
+        mockMvc.perform(get("/api/favourites").param("expand", "").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+
+        verify(favouriteService, times(1)).findAll(Expansion.ALL);
+    }
+
+    @Test
+    void testFindAllPartialIsNotTagged() throws Exception {
+        when(favouriteService.findVersion()).thenReturn("1-2-3");
+        when(favouriteService.findAll(Expansion.ALL))
+                .thenReturn(DtoCollectionResponse.<FavouriteDto>builder()
+                        .collection(List.of(favouriteDto))
+                        .partial(true)
+                        .build());
+
+        mockMvc.perform(get("/api/favourites"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.partial").value(true));
+    }
+
+    @Test
+    void testFindByIdNotModified() throws Exception {
+        when(favouriteService.findVersionById(any(FavouriteId.class))).thenReturn(Optional.of("1-2-3"));
+        when(favouriteService.findById(any(FavouriteId.class), eq(Expansion.ALL))).thenReturn(favouriteDto);
+
+        String etag = mockMvc.perform(get("/api/favourites/{userId}/{productId}", 1, 1))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/favourites/{userId}/{productId}", 1, 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        verify(favouriteService, times(1)).findById(any(FavouriteId.class), anySet());
+    }
+
+    @Test
+    void testFindAllNegotiatesSmile() throws Exception {
+        when(favouriteService.findAll(Expansion.ALL))
+                .thenReturn(new DtoCollectionResponse<>(List.of(favouriteDto)));
+
+        MvcResult result = mockMvc.perform(get("/api/favourites")
+                        .accept(MediaType.valueOf("application/x-jackson-smile")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.valueOf("application/x-jackson-smile")))
+                .andReturn();
+
+        DtoCollectionResponse<FavouriteDto> response = smileMapper.readValue(
+                result.getResponse().getContentAsByteArray(),
+                new TypeReference<DtoCollectionResponse<FavouriteDto>>() {});
+        assertEquals(1, response.getCollection().size());
+        assertEquals(favouriteDto.getLikeDate().truncatedTo(ChronoUnit.MICROS), response.getCollection().iterator().next().getLikeDate());
+    }
+
+    @Test
+    void testFindAllDefaultsToJson() throws Exception {
+        when(favouriteService.findAll(Expansion.ALL))
+                .thenReturn(new DtoCollectionResponse<>(List.of(favouriteDto)));
+
+        mockMvc.perform(get("/api/favourites").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void testFindAllWithSparseFieldsSkipsExpansion() throws Exception {
+        when(favouriteService.findAll(Expansion.NONE))
+                .thenReturn(new DtoCollectionResponse<>(List.of(favouriteDto)));
+
+        mockMvc.perform(get("/api/favourites").param("fields", "userId,likeDate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].userId").value(1))
+                .andExpect(jsonPath("$.collection[0].likeDate").exists())
+                .andExpect(jsonPath("$.collection[0].productId").doesNotExist());
+    }
+
+    @Test
+    void testFindAllWithExpandProductOnly() throws Exception {
+        when(favouriteService.findAll(Set.of(Expansion.PRODUCT)))
+                .thenReturn(new DtoCollectionResponse<>(List.of(favouriteDto)));
+
+        mockMvc.perform(get("/api/favourites").param("expand", "product"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].productId").value(1));
+    }
+
+    @Test
+    void testFindAllWithUnknownExpansion() throws Exception {
+        mockMvc.perform(get("/api/favourites").param("expand", "orders"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testFindAllPage() throws Exception {
+        when(favouriteService.findAll(50, "cursor", Expansion.ALL))
+                .thenReturn(DtoCollectionResponse.<FavouriteDto>builder()
+                        .collection(List.of(favouriteDto))
+                        .next("next-cursor")
+                        .build());
+
+        mockMvc.perform(get("/api/favourites").param("limit", "50").param("after", "cursor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].userId").value(1))
+                .andExpect(jsonPath("$.next").value("next-cursor"));
+    }
+
+    @Test
+    void testFindAllAfterWithoutLimitUsesDefaultLimit() throws Exception {
+        when(favouriteService.findAll(AppConstant.DEFAULT_PAGE_LIMIT, "cursor", Expansion.ALL))
+                .thenReturn(new DtoCollectionResponse<>(List.of(favouriteDto)));
+
+        mockMvc.perform(get("/api/favourites").param("after", "cursor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].userId").value(1));
+
+        verify(favouriteService, never()).findAll(anySet());
+    }
+
+    @Test
+    void testFindAllPageInvalidCursor() throws Exception {
+        when(favouriteService.findAll(50, "broken", Expansion.ALL))
+                .thenThrow(new InvalidCursorException("Cursor: [broken] is malformed"));
+
+        mockMvc.perform(get("/api/favourites").param("limit", "50").param("after", "broken"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testFindAllByUserId() throws Exception {
+        when(favouriteService.findAllByUserId(1, 50, null, Expansion.ALL))
+                .thenReturn(DtoCollectionResponse.<FavouriteDto>builder()
+                        .collection(List.of(favouriteDto))
+                        .next("cursor")
+                        .build());
+
+        mockMvc.perform(get("/api/favourites/users/{userId}", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].userId").value(1))
+                .andExpect(jsonPath("$.next").value("cursor"));
+    }
+
+    @Test
+    void testFindAllByProductId() throws Exception {
+        when(favouriteService.findAllByProductId(1, 10, null, Expansion.ALL))
+                .thenReturn(DtoCollectionResponse.<FavouriteDto>builder()
+                        .collection(List.of(favouriteDto))
+                        .total(1L)
+                        .build());
+
+        mockMvc.perform(get("/api/favourites/products/{productId}", 1).param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].productId").value(1))
+                .andExpect(jsonPath("$.total").value(1));
+    }
+
+    @Test
+    void testCountByUserId() throws Exception {
+        when(favouriteService.countByUserId(1)).thenReturn(3L);
+
+        mockMvc.perform(get("/api/favourites/users/{userId}/count", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(3));
+    }
+
+    @Test
+    void testFindTrending() throws Exception {
+        when(trendingService.findTrending(Duration.ofHours(1), 50, Expansion.ALL))
+                .thenReturn(List.of(TrendingProductDto.builder().productId(1).count(10L).build()));
+
+        mockMvc.perform(get("/api/favourites/trending").param("window", "1h"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].productId").value(1))
+                .andExpect(jsonPath("$.collection[0].count").value(10));
+    }
+
+    @Test
+    void testFindTrendingInvalidWindow() throws Exception {
+        mockMvc.perform(get("/api/favourites/trending").param("window", "yesterday"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testContainsAll() throws Exception {
+        when(favouriteService.containsAll(1, List.of(1, 2)))
+                .thenReturn(List.of(true, false));
+
+        mockMvc.perform(post("/api/favourites/users/{userId}/contains", 1)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1,2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0]").value(true))
+                .andExpect(jsonPath("$.collection[1]").value(false));
+    }
+
+    @Test
+    void testStream() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<FavouriteDto> consumer = invocation.getArgument(0);
+            consumer.accept(favouriteDto);
+            consumer.accept(favouriteDto);
+            return null;
+        }).when(favouriteService).streamAll(any());
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/favourites/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(result -> assertEquals(2,
+                        result.getResponse().getContentAsString().lines().count()));
+    }
+
     @Test
     void testFindById() throws Exception {
         // Configurar mock con datos completos
@@ -132,7 +401,7 @@ class FavouriteResourceIntegrationTest {
                 .productDto(productDto)
                 .build();
 
-        when(favouriteService.findById(any(FavouriteId.class)))
+        when(favouriteService.findById(any(FavouriteId.class), eq(Expansion.ALL)))
                 .thenReturn(completeFavouriteDto);
 
         mockMvc.perform(get("/api/favourites/{userId}/{productId}", 1, 1))
@@ -143,7 +412,7 @@ class FavouriteResourceIntegrationTest {
 
     @Test
     void testFindByIdNotFound() throws Exception {
-        when(favouriteService.findById(any(FavouriteId.class)))
+        when(favouriteService.findById(any(FavouriteId.class), eq(Expansion.ALL)))
                 .thenThrow(new FavouriteNotFoundException("Favourite not found"));
 
         mockMvc.perform(get("/api/favourites/{userId}/{productId}", 999, 999))
@@ -163,6 +432,40 @@ class FavouriteResourceIntegrationTest {
                 .andExpect(jsonPath("$.productId").value(favouriteDto.getProductId()));
     }
 
+    @Test
+    void testSaveAll() throws Exception {
+        when(favouriteService.saveAll(anyList()))
+                .thenReturn(List.of(
+                        FavouriteBatchResult.builder()
+                                .index(0).userId(1).productId(1)
+                                .status(FavouriteBatchResult.Status.CREATED)
+                                .favourite(favouriteDto)
+                                .build(),
+                        FavouriteBatchResult.builder()
+                                .index(1).userId(1).productId(1)
+                                .status(FavouriteBatchResult.Status.DUPLICATE)
+                                .build()));
+
+        mockMvc.perform(post("/api/favourites/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(favouriteDto, favouriteDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.collection[0].favourite.userId").value(1))
+                .andExpect(jsonPath("$.collection[1].status").value("DUPLICATE"));
+    }
+
+    @Test
+    void testSaveAllTooLarge() throws Exception {
+        when(favouriteService.saveAll(anyList()))
+                .thenThrow(new InvalidBatchException("Batch too large"));
+
+        mockMvc.perform(post("/api/favourites/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(favouriteDto))))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testSaveValidationFailed() throws Exception {
         FavouriteDto invalidDto = FavouriteDto.builder().build(); // Invalid DTO
@@ -224,4 +527,24 @@ class FavouriteResourceIntegrationTest {
         mockMvc.perform(delete("/api/favourites/{userId}/{productId}", 999, 999))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testDeleteAllByUserId() throws Exception {
+        when(favouriteService.deleteAllByUserId(1)).thenReturn(2);
+
+        mockMvc.perform(delete("/api/favourites/users/{userId}", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(2));
+    }
+
+    @Test
+    void testDeleteAllById() throws Exception {
+        when(favouriteService.deleteAllById(anyList())).thenReturn(1);
+
+        mockMvc.perform(post("/api/favourites/batch/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"userId\":1,\"productId\":1}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(1));
+    }
+}
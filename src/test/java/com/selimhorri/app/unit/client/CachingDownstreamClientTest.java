@@ -0,0 +1,125 @@
+package com.selimhorri.app.unit.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.selimhorri.app.client.BulkResponse;
+import com.selimhorri.app.client.ConditionalResponse;
+import com.selimhorri.app.client.DownstreamClient;
+import com.selimhorri.app.client.impl.CachingDownstreamClient;
+import com.selimhorri.app.config.client.ClientProperties;
+import com.selimhorri.app.dto.UserDto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class CachingDownstreamClientTest {
+
+    @Mock
+    private DownstreamClient delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CachingDownstreamClient cachingClient;
+    private UserDto userDto;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cachingClient = new CachingDownstreamClient(delegate, new ClientProperties(), meterRegistry);
+        userDto = UserDto.builder().userId(1).firstName("John").build();
+    }
+
+    @Test
+    void findUserById_ShouldHitDownstreamOnlyOnce() {
+        // Arrange
+        when(delegate.fetchUser(1, null))
+                .thenReturn(CompletableFuture.completedFuture(ConditionalResponse.of(userDto, "\"v1\"")));
+
+        // Act
+        Optional<UserDto> first = cachingClient.findUserById(1).join();
+        Optional<UserDto> second = cachingClient.findUserById(1).join();
+
+        // Assert
+        assertEquals(Optional.of(userDto), first);
+        assertEquals(Optional.of(userDto), second);
+        verify(delegate, times(1)).fetchUser(1, null);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "downstream.users")
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void findUserById_ShouldShareOneLoadBetweenConcurrentLookups() {
+        // Arrange
+        CompletableFuture<ConditionalResponse<UserDto>> inFlight = new CompletableFuture<>();
+        when(delegate.fetchUser(1, null)).thenReturn(inFlight);
+
+        // Act
+        CompletableFuture<Optional<UserDto>> first = cachingClient.findUserById(1);
+        CompletableFuture<Optional<UserDto>> second = cachingClient.findUserById(1);
+        inFlight.complete(ConditionalResponse.of(userDto, "\"v1\""));
+
+        // Assert
+        assertEquals(Optional.of(userDto), first.join());
+        assertEquals(Optional.of(userDto), second.join());
+        verify(delegate, times(1)).fetchUser(1, null);
+    }
+
+    @Test
+    void findUserById_ShouldNotCacheMissingUsers() {
+        // Arrange
+        when(delegate.fetchUser(1, null))
+                .thenReturn(CompletableFuture.completedFuture(ConditionalResponse.of(null, null)));
+
+        // Act
+        cachingClient.findUserById(1).join();
+        Optional<UserDto> result = cachingClient.findUserById(1).join();
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(delegate, times(2)).fetchUser(1, null);
+    }
+
+    @Test
+    void findUsersByIds_ShouldOnlyLoadMissingIdsInBulk() {
+        // Arrange
+        UserDto otherUserDto = UserDto.builder().userId(2).build();
+        when(delegate.fetchUser(1, null))
+                .thenReturn(CompletableFuture.completedFuture(ConditionalResponse.of(userDto, null)));
+        when(delegate.findUsersByIds(List.of(2)))
+                .thenReturn(CompletableFuture.completedFuture(BulkResponse.of(Map.of(2, otherUserDto), Set.of())));
+        cachingClient.findUserById(1).join();
+
+        // Act
+        BulkResponse<UserDto> result = cachingClient.findUsersByIds(List.of(1, 2)).join();
+
+        // Assert
+        assertEquals(Map.of(1, userDto, 2, otherUserDto), result.getFound());
+        verify(delegate, times(1)).findUsersByIds(List.of(2));
+    }
+
+    @Test
+    void findUsersByIds_ShouldKeepFailedIdsApartFromMissingOnes() {
+        // Arrange
+        when(delegate.findUsersByIds(List.of(1, 2, 3)))
+                .thenReturn(CompletableFuture.completedFuture(BulkResponse.of(Map.of(1, userDto), Set.of(2))));
+
+        // Act
+        BulkResponse<UserDto> result = cachingClient.findUsersByIds(List.of(1, 2, 3)).join();
+
+        // Assert
+        assertEquals(Map.of(1, userDto), result.getFound());
+        assertEquals(Set.of(2), result.getFailed());
+    }
+}
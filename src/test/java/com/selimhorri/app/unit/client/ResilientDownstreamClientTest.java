@@ -0,0 +1,221 @@
+package com.selimhorri.app.unit.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.selimhorri.app.client.BulkResponse;
+import com.selimhorri.app.client.ConditionalResponse;
+import com.selimhorri.app.client.Deadline;
+import com.selimhorri.app.client.DownstreamClient;
+import com.selimhorri.app.client.impl.ResilientDownstreamClient;
+import com.selimhorri.app.config.client.ClientProperties;
+import com.selimhorri.app.dto.UserDto;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class ResilientDownstreamClientTest {
+
+    @Mock
+    private DownstreamClient delegate;
+
+    private ClientProperties clientProperties;
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private ResilientDownstreamClient resilientClient;
+    private UserDto userDto;
+
+    @BeforeEach
+    void setUp() {
+        clientProperties = new ClientProperties();
+        circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        resilientClient = new ResilientDownstreamClient(
+                delegate,
+                clientProperties,
+                circuitBreakerRegistry,
+                TimeLimiterRegistry.of(TimeLimiterConfig.custom().timeoutDuration(Duration.ofMillis(100)).build()),
+                BulkheadRegistry.ofDefaults());
+        userDto = UserDto.builder().userId(1).firstName("John").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        resilientClient.shutdown();
+    }
+
+    @Test
+    void findUserById_ShouldServeLastKnownGoodWhenBreakerIsOpen() {
+        // Arrange
+        when(delegate.findUserById(1)).thenReturn(CompletableFuture.completedFuture(Optional.of(userDto)));
+        resilientClient.findUserById(1).join();
+        circuitBreakerRegistry.circuitBreaker(ResilientDownstreamClient.USER_SERVICE).transitionToOpenState();
+
+        // Act
+        Optional<UserDto> result = resilientClient.findUserById(1).join();
+
+        // Assert
+        assertEquals(Optional.of(userDto), result);
+        verify(delegate, times(1)).findUserById(1);
+    }
+
+    @Test
+    void findUserById_ShouldFailFastWhenBreakerIsOpenAndNothingIsKnown() {
+        // Arrange
+        circuitBreakerRegistry.circuitBreaker(ResilientDownstreamClient.USER_SERVICE).transitionToOpenState();
+
+        // Act & Assert
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> resilientClient.findUserById(1).join());
+        assertTrue(exception.getCause() instanceof CallNotPermittedException);
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void findUserById_ShouldTimeOutSlowCalls() {
+        // Arrange
+        when(delegate.findUserById(1)).thenReturn(new CompletableFuture<>());
+
+        // Act & Assert
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> resilientClient.findUserById(1).join());
+        assertTrue(exception.getCause() instanceof TimeoutException);
+        assertEquals(1, circuitBreakerRegistry.circuitBreaker(ResilientDownstreamClient.USER_SERVICE)
+                .getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void fetchUser_ShouldKeepCallerVersionWhenRevalidationFails() {
+        // Arrange
+        when(delegate.fetchUser(1, "\"v1\""))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("connection refused")));
+
+        // Act
+        ConditionalResponse<UserDto> result = resilientClient.fetchUser(1, "\"v1\"").join();
+
+        // Assert
+        assertTrue(result.isNotModified());
+        assertEquals("\"v1\"", result.getEtag());
+    }
+
+    @Test
+    void findUsersByIds_ShouldLookUpEachIdThroughGuardWhenBulkIsDisabled() {
+        // Arrange
+        when(delegate.findUserById(1)).thenReturn(CompletableFuture.completedFuture(Optional.of(userDto)));
+        when(delegate.findUserById(2))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("503 Service Unavailable")));
+        when(delegate.findUserById(3)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+        // Act
+        BulkResponse<UserDto> result = resilientClient.findUsersByIds(List.of(1, 2, 3, 1)).join();
+
+        // Assert
+        assertEquals(Map.of(1, userDto), result.getFound());
+        assertEquals(Set.of(2), result.getFailed());
+        verify(delegate, never()).findUsersByIds(anyCollection());
+        assertEquals(1, circuitBreakerRegistry.circuitBreaker(ResilientDownstreamClient.USER_SERVICE)
+                .getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void findUsersByIds_ShouldCancelLookupsAtDeadlineAndReportThemFailed() {
+        // Arrange
+        CompletableFuture<Optional<UserDto>> pending = new CompletableFuture<>();
+        when(delegate.findUserById(1)).thenReturn(pending);
+        // Well under the 100ms time limiter, which gives up without cancelling
+        Deadline.set(Deadline.after(Duration.ofMillis(60)));
+
+        // Act
+        BulkResponse<UserDto> result;
+        try {
+            result = resilientClient.findUsersByIds(List.of(1)).join();
+            resilientClient.findUserById(2).exceptionally(e -> Optional.empty()).join();
+        }
+        finally {
+            Deadline.clear();
+        }
+
+        // Assert
+        assertEquals(Set.of(1), result.getFailed());
+        assertTrue(pending.isCancelled());
+        verify(delegate, never()).findUserById(2);
+    }
+
+    @Test
+    void findUsersByIds_ShouldRetryFailedBulkIdsOneByOneAndServeLastKnown() {
+        // Arrange
+        clientProperties.getUser().setBulkEnabled(true);
+        when(delegate.findUserById(1))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(userDto)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("connection refused")));
+        when(delegate.findUserById(2))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("connection refused")));
+        when(delegate.findUsersByIds(List.of(1, 2)))
+                .thenReturn(CompletableFuture.completedFuture(BulkResponse.failed(List.of(1, 2))));
+        resilientClient.findUserById(1).join();
+
+        // Act
+        BulkResponse<UserDto> result = resilientClient.findUsersByIds(List.of(1, 2)).join();
+
+        // Assert
+        assertEquals(Map.of(1, userDto), result.getFound());
+        assertEquals(Set.of(2), result.getFailed());
+        assertEquals(2, circuitBreakerRegistry.circuitBreaker(ResilientDownstreamClient.USER_SERVICE)
+                .getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void findUsersByIds_ShouldAnswerFromLastKnownWhenBreakerIsOpen() {
+        // Arrange
+        clientProperties.getUser().setBulkEnabled(true);
+        when(delegate.findUserById(1)).thenReturn(CompletableFuture.completedFuture(Optional.of(userDto)));
+        resilientClient.findUserById(1).join();
+        circuitBreakerRegistry.circuitBreaker(ResilientDownstreamClient.USER_SERVICE).transitionToOpenState();
+
+        // Act
+        BulkResponse<UserDto> result = resilientClient.findUsersByIds(List.of(1, 2)).join();
+
+        // Assert
+        assertEquals(Map.of(1, userDto), result.getFound());
+        assertEquals(Set.of(2), result.getFailed());
+        verify(delegate, never()).findUsersByIds(anyCollection());
+        verify(delegate, times(1)).findUserById(1);
+    }
+
+    @Test
+    void findUsersByIds_ShouldCompleteLargeBatchWhenEveryLookupFailsAtOnce() throws Exception {
+        // Arrange
+        circuitBreakerRegistry.circuitBreaker(ResilientDownstreamClient.USER_SERVICE).transitionToOpenState();
+        List<Integer> ids = IntStream.rangeClosed(1, 10_000).boxed().collect(Collectors.toList());
+
+        // Act
+        BulkResponse<UserDto> result = resilientClient.findUsersByIds(ids).get(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(result.getFound().isEmpty());
+        assertEquals(10_000, result.getFailed().size());
+        verifyNoInteractions(delegate);
+    }
+
+}
@@ -0,0 +1,147 @@
+package com.selimhorri.app.unit.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.client.BulkResponse;
+import com.selimhorri.app.client.impl.RestTemplateDownstreamClient;
+import com.selimhorri.app.config.client.ClientProperties;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class RestTemplateDownstreamClientTest {
+
+    private static final String USERS_URL = AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private ClientProperties clientProperties;
+    private RestTemplateDownstreamClient downstreamClient;
+
+    @BeforeEach
+    void setUp() {
+        clientProperties = new ClientProperties();
+        downstreamClient = new RestTemplateDownstreamClient(restTemplate, clientProperties, BulkheadRegistry.ofDefaults());
+    }
+
+    @AfterEach
+    void tearDown() {
+        downstreamClient.shutdown();
+    }
+
+    @Test
+    void findUserById_ShouldReturnEmptyWhenNotFound() {
+        // Arrange
+        when(restTemplate.getForObject(USERS_URL + "/1", UserDto.class))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+
+        // Act
+        Optional<UserDto> result = downstreamClient.findUserById(1).join();
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void findUserById_ShouldRejectBeyondBulkheadSizedPoolWithoutBlockingProducts() throws InterruptedException {
+        // Arrange
+        RestTemplateDownstreamClient boundedClient = new RestTemplateDownstreamClient(restTemplate, clientProperties,
+                BulkheadRegistry.of(BulkheadConfig.custom().maxConcurrentCalls(1).build()));
+        CountDownLatch release = new CountDownLatch(1);
+        when(restTemplate.getForObject(USERS_URL + "/1", UserDto.class)).thenAnswer(invocation -> {
+            release.await();
+            return UserDto.builder().userId(1).build();
+        });
+        when(restTemplate.getForObject(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/1", ProductDto.class))
+                .thenReturn(ProductDto.builder().productId(1).build());
+
+        try {
+            // Act
+            CompletableFuture<Optional<UserDto>> running = boundedClient.findUserById(1);
+            CompletableFuture<Optional<UserDto>> queued = boundedClient.findUserById(1);
+            CompletableFuture<Optional<UserDto>> rejected = boundedClient.findUserById(1);
+            Optional<ProductDto> product = boundedClient.findProductById(1).join();
+
+            // Assert
+            CompletionException exception = assertThrows(CompletionException.class, rejected::join);
+            assertTrue(exception.getCause() instanceof RejectedExecutionException);
+            assertTrue(product.isPresent());
+            release.countDown();
+            assertTrue(running.join().isPresent());
+            assertTrue(queued.join().isPresent());
+        }
+        finally {
+            release.countDown();
+            boundedClient.shutdown();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findUsersByIds_ShouldRequestEachDistinctIdOnceInBulk() {
+        // Arrange
+        when(restTemplate.exchange(eq(USERS_URL + "?ids=1,2"), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(new DtoCollectionResponse<>(List.of(
+                        UserDto.builder().userId(1).build(),
+                        UserDto.builder().userId(2).build()))));
+
+        // Act
+        BulkResponse<UserDto> result = downstreamClient.findUsersByIds(List.of(1, 2, 1, 2, 1)).join();
+
+        // Assert
+        assertEquals(Set.of(1, 2), result.getFound().keySet());
+        assertTrue(result.getFailed().isEmpty());
+        verify(restTemplate, never()).getForObject(anyString(), eq(UserDto.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findUsersByIds_ShouldReportIdsOfFailedChunkAsFailed() {
+        // Arrange
+        clientProperties.getUser().setBulkChunkSize(1);
+        when(restTemplate.exchange(eq(USERS_URL + "?ids=1"), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class)))
+                .thenThrow(HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", null, null, null));
+        when(restTemplate.exchange(eq(USERS_URL + "?ids=2"), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(new DtoCollectionResponse<>(List.of())));
+
+        // Act
+        BulkResponse<UserDto> result = downstreamClient.findUsersByIds(List.of(1, 2)).join();
+
+        // Assert
+        assertTrue(result.getFound().isEmpty());
+        assertEquals(Set.of(1), result.getFailed());
+        verify(restTemplate, never()).getForObject(anyString(), eq(UserDto.class));
+    }
+}
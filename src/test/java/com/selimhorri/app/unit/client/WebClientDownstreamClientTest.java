@@ -0,0 +1,133 @@
+package com.selimhorri.app.unit.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.selimhorri.app.client.BulkResponse;
+import com.selimhorri.app.client.ConditionalResponse;
+import com.selimhorri.app.client.impl.WebClientDownstreamClient;
+import com.selimhorri.app.config.client.ClientProperties;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.dto.UserDto;
+
+import reactor.core.publisher.Mono;
+
+class WebClientDownstreamClientTest {
+
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+    private ClientProperties clientProperties;
+
+    @BeforeEach
+    void setUp() {
+        clientProperties = new ClientProperties();
+    }
+
+    private WebClientDownstreamClient client(final Function<ClientRequest, ClientResponse> handler) {
+        return new WebClientDownstreamClient(
+                WebClient.builder().exchangeFunction(request -> {
+                    calls.computeIfAbsent(request.url().toString(), url -> new AtomicInteger()).incrementAndGet();
+                    return Mono.just(handler.apply(request));
+                }),
+                clientProperties);
+    }
+
+    private static ClientResponse json(final String body) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.ETAG, "\"v1\"")
+                .body(body)
+                .build();
+    }
+
+    @Test
+    void findUserById_ShouldReturnEmptyWhenNotFound() {
+        // Arrange
+        WebClientDownstreamClient downstreamClient = client(request -> ClientResponse.create(HttpStatus.NOT_FOUND).build());
+
+        // Act
+        Optional<UserDto> result = downstreamClient.findUserById(1).join();
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void findUsersByIds_ShouldRequestEachDistinctIdOnceInBulk() {
+        // Arrange
+        WebClientDownstreamClient downstreamClient = client(request -> json("{\"collection\":[{\"userId\":1},{\"userId\":2}]}"));
+
+        // Act
+        BulkResponse<UserDto> result = downstreamClient.findUsersByIds(List.of(1, 2, 1, 2, 1)).join();
+
+        // Assert
+        assertEquals(Set.of(1, 2), result.getFound().keySet());
+        assertTrue(result.getFailed().isEmpty());
+        assertEquals(1, calls.size());
+        assertTrue(calls.containsKey(AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "?ids=1,2"));
+    }
+
+    @Test
+    void findUsersByIds_ShouldReportIdsOfFailedChunkAsFailed() {
+        // Arrange
+        clientProperties.getUser().setBulkChunkSize(1);
+        WebClientDownstreamClient downstreamClient = client(request -> "ids=1".equals(request.url().getQuery())
+                ? ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build()
+                : json("{\"collection\":[]}"));
+
+        // Act
+        BulkResponse<UserDto> result = downstreamClient.findUsersByIds(List.of(1, 2)).join();
+
+        // Assert
+        assertTrue(result.getFound().isEmpty());
+        assertEquals(Set.of(1), result.getFailed());
+        assertEquals(2, calls.size());
+    }
+
+    @Test
+    void fetchUser_ShouldReportNotModified() {
+        // Arrange
+        WebClientDownstreamClient downstreamClient = client(request -> {
+            assertEquals("\"v1\"", request.headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+            return ClientResponse.create(HttpStatus.NOT_MODIFIED).build();
+        });
+
+        // Act
+        ConditionalResponse<UserDto> result = downstreamClient.fetchUser(1, "\"v1\"").join();
+
+        // Assert
+        assertTrue(result.isNotModified());
+        assertEquals("\"v1\"", result.getEtag());
+    }
+
+    @Test
+    void fetchUser_ShouldReturnBodyAndEtag() {
+        // Arrange
+        WebClientDownstreamClient downstreamClient = client(request -> json("{\"userId\":1}"));
+
+        // Act
+        ConditionalResponse<UserDto> result = downstreamClient.fetchUser(1, null).join();
+
+        // Assert
+        assertFalse(result.isNotModified());
+        assertEquals(1, result.getBody().getUserId());
+        assertEquals("\"v1\"", result.getEtag());
+    }
+
+}
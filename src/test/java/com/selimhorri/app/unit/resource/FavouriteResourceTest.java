@@ -3,8 +3,10 @@ package com.selimhorri.app.unit.resource;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,14 +14,25 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import com.selimhorri.app.domain.id.FavouriteId;
+import com.selimhorri.app.dto.Expansion;
 import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.TrendingProductDto;
+import com.selimhorri.app.dto.response.FavouriteBatchResult;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.resource.FavouriteResource;
+import com.selimhorri.app.exception.wrapper.FavouriteNotFoundException;
+import com.selimhorri.app.exception.wrapper.InvalidWindowException;
+import com.selimhorri.app.helper.FavouriteETagHelper;
 import com.selimhorri.app.service.FavouriteService;
+import com.selimhorri.app.service.TrendingService;
 
 @ExtendWith(MockitoExtension.class)
 class FavouriteResourceTest {
@@ -27,15 +40,25 @@ class FavouriteResourceTest {
     @Mock
     private FavouriteService favouriteService;
 
+    @Mock
+    private TrendingService trendingService;
+
     @InjectMocks
     private FavouriteResource favouriteResource;
 
+    private static final String VERSION = "2-1-5";
+    private static final String ETAG = FavouriteETagHelper.of(VERSION, Expansion.ALL, null, null);
+
     private FavouriteDto favouriteDto;
     @SuppressWarnings("unused")
     private FavouriteId favouriteId;
+    private MockHttpServletRequest request;
+    private ServletWebRequest webRequest;
 
     @BeforeEach
     void setUp() {
+        request = new MockHttpServletRequest("GET", "/api/favourites");
+        webRequest = new ServletWebRequest(request, new MockHttpServletResponse());
         favouriteId = new FavouriteId(1, 1, LocalDateTime.now());
         
         favouriteDto = FavouriteDto.builder()
@@ -48,31 +71,132 @@ class FavouriteResourceTest {
     @Test
     void findAll_ShouldReturnAllFavourites() {
         // Arrange
-        when(favouriteService.findAll()).thenReturn(List.of(favouriteDto));
+        when(favouriteService.findVersion()).thenReturn(VERSION);
+        when(favouriteService.findAll(Expansion.ALL)).thenReturn(new DtoCollectionResponse<>(List.of(favouriteDto)));
 
         // Act
-        ResponseEntity<DtoCollectionResponse<FavouriteDto>> response = favouriteResource.findAll();
+        ResponseEntity<DtoCollectionResponse<FavouriteDto>> response = favouriteResource.findAll(Expansion.ALL, webRequest);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ETAG, response.getHeaders().getETag());
+        assertEquals(List.of(HttpHeaders.ACCEPT), response.getHeaders().getVary());
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().getCollection().size());
+        verify(favouriteService, times(1)).findAll(Expansion.ALL);
+    }
+
+    @Test
+    void findAll_ShouldAnswerNotModifiedWithoutReadingFavourites() {
+        // Arrange
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ETAG);
+        when(favouriteService.findVersion()).thenReturn(VERSION);
+
+        // Act
+        ResponseEntity<DtoCollectionResponse<FavouriteDto>> response = favouriteResource.findAll(Expansion.ALL, webRequest);
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        verify(favouriteService, never()).findAll(anySet());
+    }
+
+    @Test
+    void findAll_ShouldNotTagPartialResponses() {
+        // Arrange
+        when(favouriteService.findVersion()).thenReturn(VERSION);
+        when(favouriteService.findAll(Expansion.ALL)).thenReturn(DtoCollectionResponse.<FavouriteDto>builder()
+                .collection(List.of(favouriteDto))
+                .partial(true)
+                .build());
+
+        // Act
+        ResponseEntity<DtoCollectionResponse<FavouriteDto>> response = favouriteResource.findAll(Expansion.ALL, webRequest);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getHeaders().getETag());
+    }
+
+    @Test
+    void findAll_ShouldTagEachRepresentationDifferently() {
+        // Arrange
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ETAG);
+        request.addHeader(HttpHeaders.ACCEPT, "application/x-jackson-smile");
+        when(favouriteService.findVersion()).thenReturn(VERSION);
+        when(favouriteService.findAll(Expansion.NONE)).thenReturn(new DtoCollectionResponse<>(List.of(favouriteDto)));
+
+        // Act
+        ResponseEntity<DtoCollectionResponse<FavouriteDto>> response = favouriteResource.findAll(Expansion.NONE, webRequest);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotEquals(ETAG, response.getHeaders().getETag());
+    }
+
+    @Test
+    void findAllPage_ShouldReturnPageWithNextCursor() {
+        // Arrange
+        when(favouriteService.findAll(1, null, Expansion.ALL))
+                .thenReturn(DtoCollectionResponse.<FavouriteDto>builder()
+                        .collection(List.of(favouriteDto))
+                        .next("cursor")
+                        .build());
+
+        // Act
+        ResponseEntity<DtoCollectionResponse<FavouriteDto>> response = favouriteResource.findAll(1, null, Expansion.ALL);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getHeaders().getETag());
+        verify(favouriteService, never()).findVersion();
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().getCollection().size());
+        assertEquals("cursor", response.getBody().getNext());
+    }
+
+    @Test
+    void findAllByUserId_ShouldReturnUserPage() {
+        // Arrange
+        when(favouriteService.findAllByUserId(1, 50, null, Expansion.ALL))
+                .thenReturn(new DtoCollectionResponse<>(List.of(favouriteDto)));
+
+        // Act
+        ResponseEntity<DtoCollectionResponse<FavouriteDto>> response = favouriteResource.findAllByUserId("1", 50, null, Expansion.ALL);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(1, response.getBody().getCollection().size());
-        verify(favouriteService, times(1)).findAll();
     }
 
     @Test
     void findById_ShouldReturnFavourite() {
         // Arrange
-        when(favouriteService.findById(any(FavouriteId.class))).thenReturn(favouriteDto);
+        when(favouriteService.findVersionById(any(FavouriteId.class))).thenReturn(Optional.of(VERSION));
+        when(favouriteService.findById(any(FavouriteId.class), eq(Expansion.ALL))).thenReturn(favouriteDto);
 
         // Act
-        ResponseEntity<FavouriteDto> response = favouriteResource.findById("1", "1");
+        ResponseEntity<FavouriteDto> response = favouriteResource.findById("1", "1", Expansion.ALL, webRequest);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ETAG, response.getHeaders().getETag());
         assertNotNull(response.getBody());
         assertEquals(favouriteDto.getUserId(), response.getBody().getUserId());
-        verify(favouriteService, times(1)).findById(any(FavouriteId.class));
+        verify(favouriteService, times(1)).findById(any(FavouriteId.class), eq(Expansion.ALL));
+    }
+
+    @Test
+    void findById_ShouldReachNotFoundWhenFavouriteHasNoVersion() {
+        // Arrange
+        when(favouriteService.findVersionById(any(FavouriteId.class))).thenReturn(Optional.empty());
+        when(favouriteService.findById(any(FavouriteId.class), eq(Expansion.ALL)))
+                .thenThrow(new FavouriteNotFoundException("Favourite not found"));
+
+        // Act & Assert
+        assertThrows(FavouriteNotFoundException.class,
+                () -> favouriteResource.findById("1", "1", Expansion.ALL, webRequest));
     }
 
     @Test
@@ -90,6 +214,26 @@ class FavouriteResourceTest {
         verify(favouriteService, times(1)).save(any(FavouriteDto.class));
     }
 
+    @Test
+    void saveAll_ShouldReturnOneResultPerItem() {
+        // Arrange
+        FavouriteBatchResult created = FavouriteBatchResult.builder()
+                .index(0)
+                .status(FavouriteBatchResult.Status.CREATED)
+                .favourite(favouriteDto)
+                .build();
+        when(favouriteService.saveAll(List.of(favouriteDto))).thenReturn(List.of(created));
+
+        // Act
+        ResponseEntity<DtoCollectionResponse<FavouriteBatchResult>> response =
+                favouriteResource.saveAll(List.of(favouriteDto));
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(List.of(created), response.getBody().getCollection());
+    }
+
     @Test
     void deleteById_ShouldDeleteFavourite() {
         // Arrange
@@ -103,4 +247,64 @@ class FavouriteResourceTest {
         assertTrue(response.getBody());
         verify(favouriteService, times(1)).deleteById(any(FavouriteId.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void deleteAllByProductId_ShouldReturnAffectedRows() {
+        // Arrange
+        when(favouriteService.deleteAllByProductId(1)).thenReturn(3);
+
+        // Act
+        ResponseEntity<Integer> response = favouriteResource.deleteAllByProductId("1");
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(3, response.getBody());
+    }
+
+    @Test
+    void countByProductId_ShouldReturnCount() {
+        // Arrange
+        when(favouriteService.countByProductId(1)).thenReturn(42L);
+
+        // Act
+        ResponseEntity<Long> response = favouriteResource.countByProductId("1");
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(42L, response.getBody());
+    }
+
+    @Test
+    void findTrending_ShouldParseWindow() {
+        // Arrange
+        TrendingProductDto trending = TrendingProductDto.builder().productId(1).count(10L).build();
+        when(trendingService.findTrending(Duration.ofHours(24), 10, Expansion.ALL)).thenReturn(List.of(trending));
+
+        // Act
+        ResponseEntity<DtoCollectionResponse<TrendingProductDto>> response = favouriteResource.findTrending("24h", 10, Expansion.ALL);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(trending), response.getBody().getCollection());
+    }
+
+    @Test
+    void findTrending_ShouldRejectMalformedWindow() {
+        // Act & Assert
+        assertThrows(InvalidWindowException.class, () -> favouriteResource.findTrending("yesterday", 10, Expansion.ALL));
+        verifyNoInteractions(trendingService);
+    }
+
+    @Test
+    void containsAll_ShouldReturnOneFlagPerProduct() {
+        // Arrange
+        when(favouriteService.containsAll(1, List.of(1, 2))).thenReturn(List.of(true, false));
+
+        // Act
+        ResponseEntity<DtoCollectionResponse<Boolean>> response = favouriteResource.containsAll("1", List.of(1, 2));
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(true, false), response.getBody().getCollection());
+    }
+}
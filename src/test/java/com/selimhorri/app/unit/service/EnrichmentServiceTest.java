@@ -0,0 +1,183 @@
+package com.selimhorri.app.unit.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.selimhorri.app.client.BulkResponse;
+import com.selimhorri.app.client.Deadline;
+import com.selimhorri.app.client.DownstreamClient;
+import com.selimhorri.app.dto.Expansion;
+import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.service.impl.EnrichmentServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+class EnrichmentServiceTest {
+
+    @Mock
+    private DownstreamClient downstreamClient;
+
+    private EnrichmentServiceImpl enrichmentService;
+
+    private UserDto userDto;
+    private ProductDto productDto;
+
+    @BeforeEach
+    void setUp() {
+        enrichmentService = new EnrichmentServiceImpl(downstreamClient);
+
+        userDto = UserDto.builder()
+                .userId(1)
+                .firstName("John")
+                .build();
+
+        productDto = ProductDto.builder()
+                .productId(1)
+                .productTitle("Test Product")
+                .build();
+    }
+
+    private FavouriteDto favourite(final int userId, final int productId) {
+        return FavouriteDto.builder()
+                .userId(userId)
+                .productId(productId)
+                .likeDate(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    void enrich_ShouldResolveEachDistinctIdOnce() {
+        // Arrange
+        ProductDto otherProductDto = ProductDto.builder().productId(2).build();
+        when(downstreamClient.findUsersByIds(Set.of(1)))
+                .thenReturn(CompletableFuture.completedFuture(BulkResponse.of(Map.of(1, userDto), Set.of())));
+        when(downstreamClient.findProductsByIds(Set.of(1, 2)))
+                .thenReturn(CompletableFuture.completedFuture(BulkResponse.of(Map.of(1, productDto, 2, otherProductDto), Set.of())));
+
+        // Act
+        List<FavouriteDto> result = enrichmentService.enrich(List.of(favourite(1, 1), favourite(1, 2)), Expansion.ALL);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertSame(userDto, result.get(0).getUserDto());
+        assertSame(userDto, result.get(1).getUserDto());
+        assertSame(otherProductDto, result.get(1).getProductDto());
+        verify(downstreamClient, times(1)).findUsersByIds(Set.of(1));
+        verify(downstreamClient, times(1)).findProductsByIds(Set.of(1, 2));
+        verifyNoMoreInteractions(downstreamClient);
+    }
+
+    @Test
+    void enrich_ShouldFilterUnresolvedFavourites() {
+        // Arrange
+        when(downstreamClient.findUsersByIds(Set.of(1)))
+                .thenReturn(CompletableFuture.completedFuture(BulkResponse.of(Map.of(), Set.of()))); // Simulate user not found
+        when(downstreamClient.findProductsByIds(Set.of(1)))
+                .thenReturn(CompletableFuture.completedFuture(BulkResponse.of(Map.of(1, productDto), Set.of())));
+
+        // Act
+        List<FavouriteDto> result = enrichmentService.enrich(List.of(favourite(1, 1)), Expansion.ALL);
+
+        // Assert
+        assertNotNull(result);
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void enrich_ShouldKeepFavouritesUnresolvedWhenDownstreamFails() {
+        // Arrange
+        when(downstreamClient.findUsersByIds(Set.of(1)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("USER-SERVICE down")));
+        when(downstreamClient.findProductsByIds(Set.of(1)))
+                .thenReturn(CompletableFuture.completedFuture(BulkResponse.of(Map.of(1, productDto), Set.of())));
+
+        // Act
+        List<FavouriteDto> result = enrichmentService.enrich(List.of(favourite(1, 1)), Expansion.ALL);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertNull(result.get(0).getUserDto());
+        assertSame(productDto, result.get(0).getProductDto());
+    }
+
+    @Test
+    void enrich_ShouldKeepFavouriteWhoseLookupFailedApartFromMissingOnes() {
+        // Arrange
+        when(downstreamClient.findUsersByIds(Set.of(1, 2, 3)))
+                .thenReturn(CompletableFuture.completedFuture(BulkResponse.of(Map.of(1, userDto), Set.of(2))));
+
+        // Act
+        List<FavouriteDto> result = enrichmentService.enrich(
+                List.of(favourite(1, 1), favourite(2, 1), favourite(3, 1)), Set.of(Expansion.USER));
+
+        // Assert
+        assertEquals(2, result.size());
+        assertSame(userDto, result.get(0).getUserDto());
+        assertEquals(2, result.get(1).getUserId());
+        assertNull(result.get(1).getUserDto());
+    }
+
+    @Test
+    void enrich_ShouldReturnOnTimeWhenDeadlineExpires() {
+        // Arrange
+        when(downstreamClient.findUsersByIds(Set.of(1))).thenReturn(new CompletableFuture<>());
+        when(downstreamClient.findProductsByIds(Set.of(1)))
+                .thenReturn(CompletableFuture.completedFuture(BulkResponse.of(Map.of(1, productDto), Set.of())));
+        Deadline.set(Deadline.after(Duration.ofMillis(50)));
+
+        // Act
+        List<FavouriteDto> result;
+        try {
+            result = enrichmentService.enrich(List.of(favourite(1, 1)), Expansion.ALL);
+        }
+        finally {
+            Deadline.clear();
+        }
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(1, result.get(0).getUserId());
+        assertNull(result.get(0).getUserDto());
+        assertSame(productDto, result.get(0).getProductDto());
+    }
+
+    @Test
+    void enrich_ShouldOnlyResolveRequestedExpansions() {
+        // Arrange
+        when(downstreamClient.findProductsByIds(Set.of(1)))
+                .thenReturn(CompletableFuture.completedFuture(BulkResponse.of(Map.of(1, productDto), Set.of())));
+
+        // Act
+        List<FavouriteDto> result = enrichmentService.enrich(List.of(favourite(1, 1)), Set.of(Expansion.PRODUCT));
+
+        // Assert
+        assertEquals(1, result.size());
+        assertNull(result.get(0).getUserDto());
+        assertSame(productDto, result.get(0).getProductDto());
+        verify(downstreamClient, never()).findUsersByIds(anyCollection());
+    }
+
+    @Test
+    void enrich_ShouldSkipDownstreamForEmptyInput() {
+        // Act
+        List<FavouriteDto> result = enrichmentService.enrich(List.of(), Expansion.ALL);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(downstreamClient);
+    }
+}
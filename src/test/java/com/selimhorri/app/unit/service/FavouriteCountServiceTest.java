@@ -0,0 +1,73 @@
+package com.selimhorri.app.unit.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.repository.projection.FavouriteCount;
+import com.selimhorri.app.service.impl.FavouriteCountServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+class FavouriteCountServiceTest {
+
+    @Mock
+    private FavouriteRepository favouriteRepository;
+
+    @InjectMocks
+    private FavouriteCountServiceImpl favouriteCountService;
+
+    private static FavouriteCount count(final int id, final long count) {
+        return new FavouriteCount() {
+            @Override
+            public Integer getId() {
+                return id;
+            }
+
+            @Override
+            public Long getCount() {
+                return count;
+            }
+        };
+    }
+
+    @Test
+    void countByProductId_ShouldReadDatabaseUntilReconciled() {
+        // Arrange
+        when(favouriteRepository.countByProductId(1)).thenReturn(7L);
+
+        // Act
+        long result = favouriteCountService.countByProductId(1);
+
+        // Assert
+        assertEquals(7L, result);
+    }
+
+    @Test
+    void counts_ShouldFollowWritesAfterReconcile() {
+        // Arrange
+        when(favouriteRepository.countGroupByProductId()).thenReturn(List.of(count(1, 10L)));
+        when(favouriteRepository.countGroupByUserId()).thenReturn(List.of(count(1, 2L), count(2, 8L)));
+        favouriteCountService.reconcile();
+
+        // Act
+        favouriteCountService.added(3, 1);
+        favouriteCountService.removed(1, 1, 1);
+        favouriteCountService.removedByProductId(1, List.of(2, 2));
+
+        // Assert
+        assertEquals(8L, favouriteCountService.countByProductId(1));
+        assertEquals(1L, favouriteCountService.countByUserId(1));
+        assertEquals(6L, favouriteCountService.countByUserId(2));
+        assertEquals(1L, favouriteCountService.countByUserId(3));
+        assertEquals(0L, favouriteCountService.countByProductId(99));
+        verify(favouriteRepository, never()).countByProductId(any());
+    }
+}
@@ -3,32 +3,54 @@ package com.selimhorri.app.unit.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.data.domain.PageRequest;
 
-import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.client.BulkResponse;
+import com.selimhorri.app.client.Deadline;
 import com.selimhorri.app.domain.Favourite;
 import com.selimhorri.app.domain.id.FavouriteId;
+import com.selimhorri.app.dto.Expansion;
 import com.selimhorri.app.dto.FavouriteDto;
 import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.FavouriteBatchResult;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.exception.wrapper.DuplicateEntityException;
 import com.selimhorri.app.exception.wrapper.FavouriteNotFoundException;
+import com.selimhorri.app.exception.wrapper.InvalidBatchException;
+import com.selimhorri.app.exception.wrapper.InvalidCursorException;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
 import com.selimhorri.app.exception.wrapper.UserNotFoundException;
+import com.selimhorri.app.helper.FavouriteCursorHelper;
 import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.repository.projection.FavouriteVersion;
+import com.selimhorri.app.service.EnrichmentService;
+import com.selimhorri.app.service.FavouriteCountService;
+import com.selimhorri.app.service.FavouriteVersionService;
+import com.selimhorri.app.service.MembershipService;
+import com.selimhorri.app.service.TrendingService;
 import com.selimhorri.app.service.impl.FavouriteServiceImpl;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,7 +60,22 @@ class FavouriteServiceImplTest {
     private FavouriteRepository favouriteRepository;
 
     @Mock
-    private RestTemplate restTemplate;
+    private EnrichmentService enrichmentService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private FavouriteCountService favouriteCountService;
+
+    @Mock
+    private TrendingService trendingService;
+
+    @Mock
+    private MembershipService membershipService;
+
+    @Mock
+    private FavouriteVersionService favouriteVersionService;
 
     @InjectMocks
     private FavouriteServiceImpl favouriteService;
@@ -88,60 +125,188 @@ class FavouriteServiceImplTest {
     @Test
     void findAll_ShouldReturnListOfFavourites() {
         // Arrange
-        when(favouriteRepository.findAll()).thenReturn(Collections.singletonList(favourite));
-        when(restTemplate.getForObject(
-                AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/1", UserDto.class))
-                .thenReturn(userDto);
-        when(restTemplate.getForObject(
-                AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/1", ProductDto.class))
-                .thenReturn(productDto);
+        when(favouriteRepository.findAllDtos()).thenReturn(Collections.singletonList(new FavouriteDto(1, 1, favourite.getLikeDate())));
+        when(enrichmentService.enrich(anyList(), anySet())).thenReturn(List.of(favouriteDto));
 
         // Act
-        List<FavouriteDto> result = favouriteService.findAll();
+        DtoCollectionResponse<FavouriteDto> result = favouriteService.findAll(Expansion.ALL);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(favouriteDto.getUserId(), result.get(0).getUserId());
-        assertEquals(favouriteDto.getProductId(), result.get(0).getProductId());
+        assertEquals(1, result.getCollection().size());
+        assertEquals(favouriteDto.getUserId(), result.getCollection().iterator().next().getUserId());
+        assertEquals(favouriteDto.getProductId(), result.getCollection().iterator().next().getProductId());
+        assertNull(result.getPartial());
         
-        verify(favouriteRepository, times(1)).findAll();
-        verify(restTemplate, times(1)).getForObject(
-                AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/1", UserDto.class);
-        verify(restTemplate, times(1)).getForObject(
-                AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/1", ProductDto.class);
+        verify(favouriteRepository, times(1)).findAllDtos();
+        verify(favouriteRepository, never()).findAll();
+        verify(enrichmentService, times(1)).enrich(anyList(), anySet());
     }
 
     @Test
-    void findAll_ShouldFilterNullResults() {
+    void findAll_ShouldFlagUnresolvedFavouritesAsPartial() {
         // Arrange
-        when(favouriteRepository.findAll()).thenReturn(Collections.singletonList(favourite));
-        when(restTemplate.getForObject(
-                AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/1", UserDto.class))
-                .thenReturn(null); // Simulate user not found
+        FavouriteDto unresolved = new FavouriteDto(1, 1, favourite.getLikeDate());
+        when(favouriteRepository.findAllDtos()).thenReturn(List.of(unresolved));
+        when(enrichmentService.enrich(anyList(), anySet())).thenReturn(List.of(unresolved));
 
         // Act
-        List<FavouriteDto> result = favouriteService.findAll();
+        DtoCollectionResponse<FavouriteDto> result = favouriteService.findAll(Expansion.ALL);
 
         // Assert
-        assertNotNull(result);
-        assertTrue(result.isEmpty());
+        assertEquals(1, result.getCollection().size());
+        assertTrue(result.getPartial());
+    }
+
+    @Test
+    void findAllPage_ShouldReturnNextCursorWhenMoreRowsExist() {
+        // Arrange
+        Favourite second = new Favourite();
+        second.setUserId(1);
+        second.setProductId(2);
+        second.setLikeDate(favourite.getLikeDate());
+        when(favouriteRepository.findAllByOrderByUserIdAscProductIdAscLikeDateAsc(PageRequest.of(0, 2)))
+                .thenReturn(List.of(favourite, second));
+        when(enrichmentService.enrich(anyList(), anySet())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        DtoCollectionResponse<FavouriteDto> result = favouriteService.findAll(1, null, Expansion.ALL);
+
+        // Assert
+        assertEquals(1, result.getCollection().size());
+        assertEquals(FavouriteCursorHelper.encode(favourite), result.getNext());
+    }
+
+    @Test
+    void findAllPage_ShouldContinueAfterCursor() {
+        // Arrange
+        when(favouriteRepository.findAllAfter(1, 1, favourite.getLikeDate(), PageRequest.of(0, 11)))
+                .thenReturn(List.of());
+        when(enrichmentService.enrich(anyList(), anySet())).thenReturn(List.of());
+
+        // Act
+        DtoCollectionResponse<FavouriteDto> result = favouriteService.findAll(10, FavouriteCursorHelper.encode(favourite), Expansion.ALL);
+
+        // Assert
+        assertTrue(result.getCollection().isEmpty());
+        assertNull(result.getNext());
+    }
+
+    @Test
+    void findAllPage_ShouldThrowInvalidCursorException() {
+        // Act & Assert
+        assertThrows(InvalidCursorException.class, () -> {
+            favouriteService.findAll(10, "not-a-cursor", Expansion.ALL);
+        });
+        verifyNoInteractions(favouriteRepository);
+    }
+
+    @Test
+    void findAllByUserId_ShouldReturnNewestFirstPageWithCursor() {
+        // Arrange
+        Favourite older = new Favourite();
+        older.setUserId(1);
+        older.setProductId(2);
+        older.setLikeDate(favourite.getLikeDate().minusDays(1));
+        when(favouriteRepository.findAllByUserIdOrderByLikeDateDescProductIdDesc(1, PageRequest.of(0, 2)))
+                .thenReturn(List.of(favourite, older));
+        when(enrichmentService.enrich(anyList(), anySet())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        DtoCollectionResponse<FavouriteDto> result = favouriteService.findAllByUserId(1, 1, null, Expansion.ALL);
+
+        // Assert
+        assertEquals(1, result.getCollection().size());
+        assertEquals(FavouriteCursorHelper.encode(favourite), result.getNext());
+    }
+
+    @Test
+    void findAllByUserId_ShouldContinueBeforeCursor() {
+        // Arrange
+        when(favouriteRepository.findAllByUserIdBefore(1, 1, favourite.getLikeDate(), PageRequest.of(0, 51)))
+                .thenReturn(List.of());
+        when(enrichmentService.enrich(anyList(), anySet())).thenReturn(List.of());
+
+        // Act
+        DtoCollectionResponse<FavouriteDto> result =
+                favouriteService.findAllByUserId(1, 50, FavouriteCursorHelper.encode(favourite), Expansion.ALL);
+
+        // Assert
+        assertTrue(result.getCollection().isEmpty());
+        assertNull(result.getNext());
+    }
+
+    @Test
+    void findAllByUserId_ShouldRejectCursorOfAnotherUser() {
+        // Arrange
+        String cursor = FavouriteCursorHelper.encode(favourite);
+
+        // Act & Assert
+        assertThrows(InvalidCursorException.class, () -> favouriteService.findAllByUserId(2, 50, cursor, Expansion.ALL));
+        verifyNoInteractions(favouriteRepository);
+    }
+
+    @Test
+    void findAllByProductId_ShouldReturnFirstPageWithTotal() {
+        // Arrange
+        when(favouriteRepository.findAllByProductIdOrderByLikeDateDescUserIdDesc(1, PageRequest.of(0, 51)))
+                .thenReturn(List.of(favourite));
+        when(favouriteRepository.countByProductId(1)).thenReturn(1L);
+        when(enrichmentService.enrich(anyList(), anySet())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        DtoCollectionResponse<FavouriteDto> result = favouriteService.findAllByProductId(1, 50, null, Expansion.ALL);
+
+        // Assert
+        assertEquals(1, result.getCollection().size());
+        assertEquals(1L, result.getTotal());
+        assertNull(result.getNext());
+    }
+
+    @Test
+    void findAllByProductId_ShouldNotCountAgainOnLaterPages() {
+        // Arrange
+        when(favouriteRepository.findAllByProductIdBefore(1, 1, favourite.getLikeDate(), PageRequest.of(0, 51)))
+                .thenReturn(List.of());
+        when(enrichmentService.enrich(anyList(), anySet())).thenReturn(List.of());
+
+        // Act
+        DtoCollectionResponse<FavouriteDto> result =
+                favouriteService.findAllByProductId(1, 50, FavouriteCursorHelper.encode(favourite), Expansion.ALL);
+
+        // Assert
+        assertNull(result.getTotal());
+        verify(favouriteRepository, never()).countByProductId(any());
+    }
+
+    @Test
+    void streamAll_ShouldEmitAndDetachEachFavourite() {
+        // Arrange
+        List<FavouriteDto> emitted = new ArrayList<>();
+        when(favouriteRepository.streamAll()).thenReturn(Stream.of(favourite));
+
+        // Act
+        favouriteService.streamAll(emitted::add);
+
+        // Assert
+        assertEquals(1, emitted.size());
+        assertEquals(favourite.getUserId(), emitted.get(0).getUserId());
+        verify(entityManager, times(1)).detach(favourite);
+        verifyNoInteractions(enrichmentService);
     }
 
     @Test
     void findById_ShouldReturnFavourite() {
         // Arrange
-        when(favouriteRepository.findByUserIdAndProductId(1, 1))
-                .thenReturn(Optional.of(favourite));
-        when(restTemplate.getForObject(
-                AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/1", UserDto.class))
-                .thenReturn(userDto);
-        when(restTemplate.getForObject(
-                AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/1", ProductDto.class))
-                .thenReturn(productDto);
+        when(favouriteRepository.findDtoByUserIdAndProductId(1, 1))
+                .thenReturn(Optional.of(new FavouriteDto(1, 1, favourite.getLikeDate())));
+        when(enrichmentService.findUser(1))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(userDto)));
+        when(enrichmentService.findProduct(1))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(productDto)));
 
         // Act
-        FavouriteDto result = favouriteService.findById(favouriteId);
+        FavouriteDto result = favouriteService.findById(favouriteId, Expansion.ALL);
 
         // Assert
         assertNotNull(result);
@@ -151,60 +316,166 @@ class FavouriteServiceImplTest {
         assertNotNull(result.getProductDto());
     }
 
+    @Test
+    void findById_ShouldSkipDownstreamWithoutExpansion() {
+        // Arrange
+        when(favouriteRepository.findDtoByUserIdAndProductId(1, 1))
+                .thenReturn(Optional.of(new FavouriteDto(1, 1, favourite.getLikeDate())));
+
+        // Act
+        FavouriteDto result = favouriteService.findById(favouriteId, Expansion.NONE);
+
+        // Assert
+        assertEquals(1, result.getUserId());
+        assertNull(result.getUserDto());
+        assertNull(result.getProductDto());
+        verifyNoInteractions(enrichmentService);
+    }
+
+    @Test
+    void findById_ShouldRequestUserAndProductBeforeWaitingOnEither() {
+        // Arrange
+        CompletableFuture<Optional<UserDto>> pendingUser = new CompletableFuture<>();
+        when(favouriteRepository.findDtoByUserIdAndProductId(1, 1))
+                .thenReturn(Optional.of(new FavouriteDto(1, 1, favourite.getLikeDate())));
+        when(enrichmentService.findUser(1)).thenReturn(pendingUser);
+        when(enrichmentService.findProduct(1)).thenAnswer(invocation -> {
+            // The user lookup is still pending when the product lookup starts
+            assertFalse(pendingUser.isDone());
+            pendingUser.complete(Optional.of(userDto));
+            return CompletableFuture.completedFuture(Optional.of(productDto));
+        });
+
+        // Act
+        FavouriteDto result = favouriteService.findById(favouriteId, Expansion.ALL);
+
+        // Assert
+        assertEquals(userDto, result.getUserDto());
+        assertEquals(productDto, result.getProductDto());
+    }
+
     @Test
     void findById_ShouldThrowFavouriteNotFoundException() {
         // Arrange
-        when(favouriteRepository.findByUserIdAndProductId(1, 1))
+        when(favouriteRepository.findDtoByUserIdAndProductId(1, 1))
                 .thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(FavouriteNotFoundException.class, () -> {
-            favouriteService.findById(favouriteId);
+            favouriteService.findById(favouriteId, Expansion.ALL);
         });
     }
 
+    @Test
+    void findVersion_ShouldComeFromVersionServiceWithoutScanningTable() {
+        // Arrange
+        when(favouriteVersionService.current()).thenReturn("2-1-2-3");
+
+        // Act
+        String result = favouriteService.findVersion();
+
+        // Assert
+        assertEquals("2-1-2-3", result);
+        verify(favouriteRepository, never()).findVersion();
+    }
+
+    @Test
+    void findVersionById_ShouldBeEmptyWhenFavouriteIsMissing() {
+        // Arrange
+        FavouriteVersion version = mock(FavouriteVersion.class);
+        when(version.getCount()).thenReturn(0L);
+        when(favouriteRepository.findVersionByUserIdAndProductId(1, 1)).thenReturn(version);
+
+        // Act
+        Optional<String> result = favouriteService.findVersionById(favouriteId);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(favouriteRepository, never()).findDtoByUserIdAndProductId(anyInt(), anyInt());
+    }
+
     @Test
     void findById_ShouldThrowExceptionWhenUserNotFound() {
         // Arrange
-        when(favouriteRepository.findByUserIdAndProductId(1, 1))
-                .thenReturn(Optional.of(favourite));
-        when(restTemplate.getForObject(
-                AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/1", UserDto.class))
-                .thenReturn(null);
+        when(favouriteRepository.findDtoByUserIdAndProductId(1, 1))
+                .thenReturn(Optional.of(new FavouriteDto(1, 1, favourite.getLikeDate())));
+        when(enrichmentService.findUser(1))
+                .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        when(enrichmentService.findProduct(1))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(productDto)));
 
         // Act & Assert
         assertThrows(FavouriteNotFoundException.class, () -> {
-            favouriteService.findById(favouriteId);
+            favouriteService.findById(favouriteId, Expansion.ALL);
         });
     }
 
     @Test
     void findById_ShouldThrowExceptionWhenProductNotFound() {
         // Arrange
-        when(favouriteRepository.findByUserIdAndProductId(1, 1))
-                .thenReturn(Optional.of(favourite));
-        when(restTemplate.getForObject(
-                AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/1", UserDto.class))
-                .thenReturn(userDto);
-        when(restTemplate.getForObject(
-                AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/1", ProductDto.class))
-                .thenReturn(null);
+        when(favouriteRepository.findDtoByUserIdAndProductId(1, 1))
+                .thenReturn(Optional.of(new FavouriteDto(1, 1, favourite.getLikeDate())));
+        when(enrichmentService.findUser(1))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(userDto)));
+        when(enrichmentService.findProduct(1))
+                .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
 
         // Act & Assert
         assertThrows(FavouriteNotFoundException.class, () -> {
-            favouriteService.findById(favouriteId);
+            favouriteService.findById(favouriteId, Expansion.ALL);
         });
     }
 
+    @Test
+    void findById_ShouldReturnPartialFavouriteWhenDownstreamFails() {
+        // Arrange
+        when(favouriteRepository.findDtoByUserIdAndProductId(1, 1))
+                .thenReturn(Optional.of(new FavouriteDto(1, 1, favourite.getLikeDate())));
+        when(enrichmentService.findUser(1))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("USER-SERVICE down")));
+        when(enrichmentService.findProduct(1))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(productDto)));
+
+        // Act
+        FavouriteDto result = favouriteService.findById(favouriteId, Expansion.ALL);
+
+        // Assert
+        assertNull(result.getUserDto());
+        assertSame(productDto, result.getProductDto());
+        assertTrue(result.getPartial());
+    }
+
+    @Test
+    void findById_ShouldReturnPartialFavouriteWhenDeadlineExpires() {
+        // Arrange
+        when(favouriteRepository.findDtoByUserIdAndProductId(1, 1))
+                .thenReturn(Optional.of(new FavouriteDto(1, 1, favourite.getLikeDate())));
+        when(enrichmentService.findUser(1)).thenReturn(CompletableFuture.completedFuture(Optional.of(userDto)));
+        when(enrichmentService.findProduct(1)).thenReturn(new CompletableFuture<>());
+        Deadline.set(Deadline.after(Duration.ofMillis(50)));
+
+        // Act
+        FavouriteDto result;
+        try {
+            result = favouriteService.findById(favouriteId, Expansion.ALL);
+        }
+        finally {
+            Deadline.clear();
+        }
+
+        // Assert
+        assertSame(userDto, result.getUserDto());
+        assertNull(result.getProductDto());
+        assertTrue(result.getPartial());
+    }
+
     @Test
     void save_ShouldSaveFavourite() {
         // Arrange
-        when(restTemplate.getForEntity(
-                AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/1", UserDto.class))
-                .thenReturn(new ResponseEntity<>(userDto, HttpStatus.OK));
-        when(restTemplate.getForEntity(
-                AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/1", ProductDto.class))
-                .thenReturn(new ResponseEntity<>(productDto, HttpStatus.OK));
+        when(enrichmentService.findUser(1))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(userDto)));
+        when(enrichmentService.findProduct(1))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(productDto)));
         when(favouriteRepository.existsByUserIdAndProductId(1, 1)).thenReturn(false);
         when(favouriteRepository.save(any(Favourite.class))).thenReturn(favourite);
 
@@ -217,59 +488,228 @@ class FavouriteServiceImplTest {
         assertEquals(favouriteDto.getProductId(), result.getProductId());
         
         verify(favouriteRepository, times(1)).save(any(Favourite.class));
+        verify(favouriteCountService, times(1)).added(1, 1);
+        verify(trendingService, times(1)).record(1, favourite.getLikeDate());
+        verify(membershipService, times(1)).added(1, 1);
+        verify(favouriteVersionService, times(1)).changed();
     }
 
     @Test
     void save_ShouldThrowUserNotFoundException() {
         // Arrange
-        when(restTemplate.getForEntity(
-                AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/1", UserDto.class))
-                .thenReturn(new ResponseEntity<>(null, HttpStatus.NOT_FOUND));
+        when(enrichmentService.findUser(1))
+                .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        when(enrichmentService.findProduct(1))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(productDto)));
 
         // Act & Assert
         assertThrows(UserNotFoundException.class, () -> {
             favouriteService.save(favouriteDto);
         });
+        verify(favouriteRepository, never()).save(any(Favourite.class));
     }
 
     @Test
     void save_ShouldThrowProductNotFoundException() {
         // Arrange
-        when(restTemplate.getForEntity(
-                AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/1", UserDto.class))
-                .thenReturn(new ResponseEntity<>(userDto, HttpStatus.OK));
-        when(restTemplate.getForEntity(
-                AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/1", ProductDto.class))
-                .thenReturn(new ResponseEntity<>(null, HttpStatus.NOT_FOUND));
+        when(enrichmentService.findUser(1))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(userDto)));
+        when(enrichmentService.findProduct(1))
+                .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
 
         // Act & Assert
         assertThrows(ProductNotFoundException.class, () -> {
             favouriteService.save(favouriteDto);
         });
+        verify(favouriteRepository, never()).save(any(Favourite.class));
+    }
+
+    @Test
+    void save_ShouldGiveUpVerifyingWhenDeadlineExpires() {
+        // Arrange
+        when(enrichmentService.findUser(1)).thenReturn(new CompletableFuture<>());
+        when(enrichmentService.findProduct(1)).thenReturn(CompletableFuture.completedFuture(Optional.of(productDto)));
+        Deadline.set(Deadline.after(Duration.ofMillis(50)));
+
+        // Act & Assert
+        try {
+            UserNotFoundException exception = assertThrows(UserNotFoundException.class,
+                    () -> favouriteService.save(favouriteDto));
+            assertTrue(exception.getCause() instanceof TimeoutException);
+        }
+        finally {
+            Deadline.clear();
+        }
+        verify(favouriteRepository, never()).save(any(Favourite.class));
     }
 
     @Test
     void save_ShouldThrowDuplicateEntityException() {
         // Arrange
-        when(restTemplate.getForEntity(
-                AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/1", UserDto.class))
-                .thenReturn(new ResponseEntity<>(userDto, HttpStatus.OK));
-        when(restTemplate.getForEntity(
-                AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/1", ProductDto.class))
-                .thenReturn(new ResponseEntity<>(productDto, HttpStatus.OK));
+        when(enrichmentService.findUser(1))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(userDto)));
+        when(enrichmentService.findProduct(1))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(productDto)));
         when(favouriteRepository.existsByUserIdAndProductId(1, 1)).thenReturn(true);
 
         // Act & Assert
         assertThrows(DuplicateEntityException.class, () -> {
             favouriteService.save(favouriteDto);
         });
+        verify(favouriteRepository, never()).save(any(Favourite.class));
+        verifyNoInteractions(membershipService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void saveAll_ShouldClassifyEachItemAndPersistNewOnesOnce() {
+        // Arrange
+        List<FavouriteDto> batch = new ArrayList<>(List.of(
+                FavouriteDto.builder().userId(1).productId(1).build(),
+                FavouriteDto.builder().userId(1).productId(2).build(),
+                FavouriteDto.builder().userId(1).productId(2).build(),
+                FavouriteDto.builder().userId(2).productId(1).build(),
+                FavouriteDto.builder().userId(1).productId(3).build(),
+                FavouriteDto.builder().userId(1).build()));
+        when(enrichmentService.findUsers(Set.of(1, 2)))
+                .thenReturn(CompletableFuture.completedFuture(BulkResponse.of(Map.of(1, userDto), Set.of())));
+        when(enrichmentService.findProducts(Set.of(1, 2, 3)))
+                .thenReturn(CompletableFuture.completedFuture(BulkResponse.of(Map.of(1, productDto, 2, productDto), Set.of())));
+        when(favouriteRepository.findIdsByUserIdInAndProductIdIn(Set.of(1, 2), Set.of(1, 2, 3)))
+                .thenReturn(List.of(favouriteId));
+
+        // Act
+        List<FavouriteBatchResult> results = favouriteService.saveAll(batch);
+
+        // Assert
+        assertEquals(6, results.size());
+        assertEquals(FavouriteBatchResult.Status.DUPLICATE, results.get(0).getStatus());
+        assertEquals(FavouriteBatchResult.Status.CREATED, results.get(1).getStatus());
+        assertEquals(FavouriteBatchResult.Status.DUPLICATE, results.get(2).getStatus());
+        assertEquals(FavouriteBatchResult.Status.USER_NOT_FOUND, results.get(3).getStatus());
+        assertEquals(FavouriteBatchResult.Status.PRODUCT_NOT_FOUND, results.get(4).getStatus());
+        assertEquals(FavouriteBatchResult.Status.INVALID, results.get(5).getStatus());
+        assertEquals(5, results.get(5).getIndex());
+
+        ArgumentCaptor<List<Favourite>> persisted = ArgumentCaptor.forClass(List.class);
+        verify(favouriteRepository, times(1)).persistAll(persisted.capture());
+        assertEquals(1, persisted.getValue().size());
+        assertEquals(2, persisted.getValue().get(0).getProductId());
+        verify(favouriteRepository, never()).save(any(Favourite.class));
+        verify(favouriteRepository, never()).existsByUserIdAndProductId(any(), any());
+    }
+
+    @Test
+    void saveAll_ShouldCheckDuplicatesInDatabaseNotMembershipIndex() {
+        // Arrange
+        when(enrichmentService.findUsers(Set.of(1)))
+                .thenReturn(CompletableFuture.completedFuture(BulkResponse.of(Map.of(1, userDto), Set.of())));
+        when(enrichmentService.findProducts(Set.of(1)))
+                .thenReturn(CompletableFuture.completedFuture(BulkResponse.of(Map.of(1, productDto), Set.of())));
+        when(favouriteRepository.findIdsByUserIdInAndProductIdIn(Set.of(1), Set.of(1)))
+                .thenReturn(List.of(favouriteId));
+
+        // Act
+        List<FavouriteBatchResult> results = favouriteService.saveAll(List.of(favouriteDto));
+
+        // Assert
+        assertEquals(FavouriteBatchResult.Status.DUPLICATE, results.get(0).getStatus());
+        verify(membershipService, never()).isLoaded();
+        verify(membershipService, never()).contains(any(), any());
+        verify(favouriteRepository, never()).persistAll(any());
+    }
+
+    @Test
+    void saveAll_ShouldReportFailedLookupsAsUnavailableNotMissing() {
+        // Arrange
+        List<FavouriteDto> batch = List.of(
+                FavouriteDto.builder().userId(1).productId(1).build(),
+                FavouriteDto.builder().userId(2).productId(1).build(),
+                FavouriteDto.builder().userId(1).productId(2).build());
+        when(enrichmentService.findUsers(Set.of(1, 2)))
+                .thenReturn(CompletableFuture.completedFuture(BulkResponse.of(Map.of(1, userDto), Set.of(2))));
+        when(enrichmentService.findProducts(Set.of(1, 2)))
+                .thenReturn(CompletableFuture.completedFuture(BulkResponse.of(Map.of(), Set.of(1))));
+        when(favouriteRepository.findIdsByUserIdInAndProductIdIn(Set.of(1, 2), Set.of(1, 2)))
+                .thenReturn(List.of());
+
+        // Act
+        List<FavouriteBatchResult> results = favouriteService.saveAll(batch);
+
+        // Assert
+        assertEquals(FavouriteBatchResult.Status.PRODUCT_UNAVAILABLE, results.get(0).getStatus());
+        assertEquals(FavouriteBatchResult.Status.USER_UNAVAILABLE, results.get(1).getStatus());
+        assertEquals(FavouriteBatchResult.Status.PRODUCT_NOT_FOUND, results.get(2).getStatus());
+        verify(favouriteRepository, never()).persistAll(any());
+    }
+
+    @Test
+    void saveAll_ShouldReportUnverifiedIdsAsUnavailableWhenDeadlineExpires() {
+        // Arrange
+        when(enrichmentService.findUsers(Set.of(1))).thenReturn(new CompletableFuture<>());
+        when(enrichmentService.findProducts(Set.of(1)))
+                .thenReturn(CompletableFuture.completedFuture(BulkResponse.of(Map.of(1, productDto), Set.of())));
+        when(favouriteRepository.findIdsByUserIdInAndProductIdIn(Set.of(1), Set.of(1))).thenReturn(List.of());
+        Deadline.set(Deadline.after(Duration.ofMillis(50)));
+
+        // Act
+        List<FavouriteBatchResult> results;
+        try {
+            results = favouriteService.saveAll(List.of(favouriteDto));
+        }
+        finally {
+            Deadline.clear();
+        }
+
+        // Assert
+        assertEquals(FavouriteBatchResult.Status.USER_UNAVAILABLE, results.get(0).getStatus());
+        verify(favouriteRepository, never()).persistAll(any());
+    }
+
+    @Test
+    void saveAll_ShouldRejectOversizedBatch() {
+        // Arrange
+        List<FavouriteDto> batch = Collections.nCopies(10_001, favouriteDto);
+
+        // Act & Assert
+        assertThrows(InvalidBatchException.class, () -> favouriteService.saveAll(batch));
+        verifyNoInteractions(enrichmentService);
+        verify(favouriteRepository, never()).persistAll(any());
+    }
+
+    @Test
+    void containsAll_ShouldAnswerWithOneQueryInRequestOrder() {
+        // Arrange
+        when(favouriteRepository.findProductIdsByUserIdAndProductIdIn(1, Set.of(1, 2, 3)))
+                .thenReturn(List.of(3, 1));
+
+        // Act
+        List<Boolean> result = favouriteService.containsAll(1, Arrays.asList(1, 2, null, 3));
+
+        // Assert
+        assertEquals(List.of(true, false, false, true), result);
+        verifyNoInteractions(enrichmentService);
+    }
+
+    @Test
+    void containsAll_ShouldUseMembershipIndexWhenLoaded() {
+        // Arrange
+        when(membershipService.isLoaded()).thenReturn(true);
+        when(membershipService.contains(1, 1)).thenReturn(true);
+        when(membershipService.contains(1, 2)).thenReturn(false);
+
+        // Act
+        List<Boolean> result = favouriteService.containsAll(1, List.of(1, 2));
+
+        // Assert
+        assertEquals(List.of(true, false), result);
+        verifyNoInteractions(favouriteRepository);
     }
 
     @Test
     void deleteById_ShouldDeleteFavourite() {
         // Arrange
-        when(favouriteRepository.existsByUserIdAndProductId(1, 1)).thenReturn(true);
-        doNothing().when(favouriteRepository).deleteByUserIdAndProductId(1, 1);
+        when(favouriteRepository.deleteByUserIdAndProductId(1, 1)).thenReturn(1);
 
         // Act
         assertDoesNotThrow(() -> {
@@ -278,16 +718,60 @@ class FavouriteServiceImplTest {
 
         // Assert
         verify(favouriteRepository, times(1)).deleteByUserIdAndProductId(1, 1);
+        verify(favouriteRepository, never()).existsByUserIdAndProductId(any(), any());
+        verify(favouriteCountService, times(1)).removed(1, 1, 1);
     }
 
     @Test
     void deleteById_ShouldThrowFavouriteNotFoundException() {
         // Arrange
-        when(favouriteRepository.existsByUserIdAndProductId(1, 1)).thenReturn(false);
+        when(favouriteRepository.deleteByUserIdAndProductId(1, 1)).thenReturn(0);
 
         // Act & Assert
         assertThrows(FavouriteNotFoundException.class, () -> {
             favouriteService.deleteById(favouriteId);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void deleteAllByUserId_ShouldReturnAffectedRows() {
+        // Arrange
+        when(favouriteRepository.findProductIdsByUserId(1)).thenReturn(List.of(1, 2));
+        when(favouriteRepository.deleteAllByUserId(1)).thenReturn(2);
+
+        // Act
+        int deleted = favouriteService.deleteAllByUserId(1);
+
+        // Assert
+        assertEquals(2, deleted);
+        verify(favouriteCountService, times(1)).removedByUserId(1, List.of(1, 2));
+    }
+
+    @Test
+    void deleteAllById_ShouldDeleteDistinctPairsAndUpdateCountsOfDeletedOnes() {
+        // Arrange
+        List<FavouriteId> expected = List.of(new FavouriteId(1, 1, null), new FavouriteId(1, 2, null));
+        when(favouriteRepository.deleteAllByUserIdAndProductId(expected)).thenReturn(List.of(favouriteId));
+
+        // Act
+        int deleted = favouriteService.deleteAllById(List.of(
+                favouriteId, new FavouriteId(1, 2, null), new FavouriteId(1, 1, null)));
+
+        // Assert
+        assertEquals(1, deleted);
+        verify(favouriteRepository, times(1)).deleteAllByUserIdAndProductId(expected);
+        verify(favouriteRepository, never()).findIdsByUserIdInAndProductIdIn(anyCollection(), anyCollection());
+        verify(favouriteCountService, times(1)).removed(1, 1, 1);
+        verify(membershipService, times(1)).removed(1, 1);
+    }
+
+    @Test
+    void deleteAllById_ShouldRejectIncompleteIds() {
+        // Arrange
+        List<FavouriteId> favouriteIds = List.of(new FavouriteId(1, null, null));
+
+        // Act & Assert
+        assertThrows(InvalidBatchException.class, () -> favouriteService.deleteAllById(favouriteIds));
+        verifyNoInteractions(favouriteRepository);
+    }
+}
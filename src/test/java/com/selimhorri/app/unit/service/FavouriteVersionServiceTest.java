@@ -0,0 +1,82 @@
+package com.selimhorri.app.unit.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.repository.projection.FavouriteVersion;
+import com.selimhorri.app.service.impl.FavouriteVersionServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+class FavouriteVersionServiceTest {
+
+    @Mock
+    private FavouriteRepository favouriteRepository;
+
+    private static FavouriteVersion version(final long count, final long userIdSum) {
+        final LocalDateTime lastLikeDate = LocalDateTime.of(2024, 1, 1, 0, 0);
+        return new FavouriteVersion() {
+            @Override
+            public Long getCount() {
+                return count;
+            }
+
+            @Override
+            public LocalDateTime getLastLikeDate() {
+                return lastLikeDate;
+            }
+
+            @Override
+            public Long getUserIdSum() {
+                return userIdSum;
+            }
+
+            @Override
+            public Long getProductIdSum() {
+                return 3L;
+            }
+        };
+    }
+
+    @Test
+    void current_ShouldScanTableOnceUntilAWrite() {
+        // Arrange
+        FavouriteVersionServiceImpl versionService = new FavouriteVersionServiceImpl(favouriteRepository, Duration.ofMinutes(1));
+        when(favouriteRepository.findVersion()).thenReturn(version(2L, 2L), version(2L, 3L));
+
+        // Act
+        String first = versionService.current();
+        String cached = versionService.current();
+        versionService.changed();
+        String afterWrite = versionService.current();
+
+        // Assert
+        assertEquals(first, cached);
+        assertNotEquals(first, afterWrite);
+        verify(favouriteRepository, times(2)).findVersion();
+    }
+
+    @Test
+    void current_ShouldScanTableAgainOnceMaxAgeHasPassed() {
+        // Arrange
+        FavouriteVersionServiceImpl versionService = new FavouriteVersionServiceImpl(favouriteRepository, Duration.ZERO);
+        when(favouriteRepository.findVersion()).thenReturn(version(2L, 2L), version(2L, 3L));
+
+        // Act
+        String first = versionService.current();
+        String second = versionService.current();
+
+        // Assert
+        assertNotEquals(first, second);
+        verify(favouriteRepository, times(2)).findVersion();
+    }
+
+}
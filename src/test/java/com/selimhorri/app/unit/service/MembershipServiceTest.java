@@ -0,0 +1,102 @@
+package com.selimhorri.app.unit.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.selimhorri.app.domain.id.FavouriteId;
+import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.service.impl.MembershipServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class MembershipServiceTest {
+
+    @Mock
+    private FavouriteRepository favouriteRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MembershipServiceImpl membershipService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        membershipService = new MembershipServiceImpl(favouriteRepository, true, meterRegistry);
+    }
+
+    @Test
+    void contains_ShouldQueryDatabaseUntilLoaded() {
+        // Arrange
+        when(favouriteRepository.existsByUserIdAndProductId(1, 1)).thenReturn(true);
+
+        // Act & Assert
+        assertFalse(membershipService.isLoaded());
+        assertTrue(membershipService.contains(1, 1));
+    }
+
+    @Test
+    void contains_ShouldBeAnsweredFromIndexOnceLoaded() {
+        // Arrange
+        when(favouriteRepository.streamAllIds()).thenReturn(Stream.of(
+                new FavouriteId(1, 1, null),
+                new FavouriteId(1, 2, null),
+                new FavouriteId(2, 2, null)));
+
+        // Act
+        membershipService.load();
+        membershipService.added(3, 7);
+        membershipService.removed(1, 2);
+        membershipService.removedByProductId(2, List.of(2));
+
+        // Assert
+        assertTrue(membershipService.isLoaded());
+        assertTrue(membershipService.contains(1, 1));
+        assertFalse(membershipService.contains(1, 2));
+        assertFalse(membershipService.contains(2, 2));
+        assertTrue(membershipService.contains(3, 7));
+        assertFalse(membershipService.contains(4, 1));
+        verify(favouriteRepository, never()).existsByUserIdAndProductId(any(), any());
+        assertEquals(1, meterRegistry.get("favourites.membership.load").timer().count());
+        assertTrue(meterRegistry.get("favourites.membership.memory").gauge().value() > 0);
+    }
+
+    @Test
+    void load_ShouldReplaceIndexWithCurrentTableOnRebuild() {
+        // Arrange
+        when(favouriteRepository.streamAllIds())
+                .thenReturn(Stream.of(new FavouriteId(1, 1, null)))
+                .thenReturn(Stream.of(new FavouriteId(2, 2, null)));
+        membershipService.load();
+
+        // Act
+        membershipService.load();
+
+        // Assert
+        assertFalse(membershipService.contains(1, 1));
+        assertTrue(membershipService.contains(2, 2));
+        assertEquals(2, meterRegistry.get("favourites.membership.load").timer().count());
+        assertEquals(1, meterRegistry.get("favourites.membership.users").gauge().value());
+    }
+
+    @Test
+    void load_ShouldDoNothingWhenDisabled() {
+        // Arrange
+        MembershipServiceImpl disabled = new MembershipServiceImpl(favouriteRepository, false, meterRegistry);
+
+        // Act
+        disabled.load();
+
+        // Assert
+        assertFalse(disabled.isLoaded());
+        verifyNoInteractions(favouriteRepository);
+    }
+}
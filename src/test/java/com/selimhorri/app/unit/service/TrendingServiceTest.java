@@ -0,0 +1,99 @@
+package com.selimhorri.app.unit.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.selimhorri.app.client.BulkResponse;
+import com.selimhorri.app.config.trending.TrendingProperties;
+import com.selimhorri.app.dto.Expansion;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.TrendingProductDto;
+import com.selimhorri.app.exception.wrapper.InvalidWindowException;
+import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.service.EnrichmentService;
+import com.selimhorri.app.service.impl.TrendingServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+class TrendingServiceTest {
+
+    @Mock
+    private FavouriteRepository favouriteRepository;
+
+    @Mock
+    private EnrichmentService enrichmentService;
+
+    private TrendingServiceImpl trendingService;
+
+    @BeforeEach
+    void setUp() {
+        TrendingProperties trendingProperties = new TrendingProperties();
+        trendingProperties.setBucketWidth(Duration.ofMinutes(5));
+        trendingProperties.setRetention(Duration.ofHours(24));
+        trendingProperties.setCapacity(2);
+        trendingService = new TrendingServiceImpl(favouriteRepository, enrichmentService, trendingProperties);
+    }
+
+    @Test
+    void findTrending_ShouldRankProductsLikedInsideTheWindow() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 3; i++) {
+            trendingService.record(1, now);
+        }
+        trendingService.record(2, now);
+        trendingService.record(2, now);
+        trendingService.record(3, now);
+        // Older than the 1h window but inside the retention
+        for (int i = 0; i < 10; i++) {
+            trendingService.record(4, now.minusHours(3));
+        }
+        ProductDto productDto = ProductDto.builder().productId(1).productTitle("Smartphone").build();
+        when(enrichmentService.findProducts(anyCollection()))
+                .thenReturn(CompletableFuture.completedFuture(BulkResponse.of(Map.of(1, productDto), Set.of())));
+
+        // Act
+        List<TrendingProductDto> result = trendingService.findTrending(Duration.ofHours(1), 2, Expansion.ALL);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(1, result.get(0).getProductId());
+        assertEquals(3L, result.get(0).getCount());
+        assertSame(productDto, result.get(0).getProductDto());
+        assertEquals(2, result.get(1).getProductId());
+        assertNull(result.get(1).getProductDto());
+    }
+
+    @Test
+    void findTrending_ShouldIgnoreLikesOutsideTheRetention() {
+        // Arrange
+        trendingService.record(1, LocalDateTime.now().minusDays(2));
+
+        // Act
+        List<TrendingProductDto> result = trendingService.findTrending(Duration.ofHours(24), 2, Expansion.ALL);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(enrichmentService);
+    }
+
+    @Test
+    void findTrending_ShouldRejectWindowLongerThanRetention() {
+        // Act & Assert
+        assertThrows(InvalidWindowException.class, () -> trendingService.findTrending(Duration.ofDays(7), 2, Expansion.ALL));
+        assertThrows(InvalidWindowException.class, () -> trendingService.findTrending(Duration.ofHours(1), 3, Expansion.ALL));
+    }
+}